@@ -1,5 +1,8 @@
 package com.groceryscout.backend.config;
 
+import com.groceryscout.backend.event.BinaryEventDeserializer;
+import com.groceryscout.backend.event.BinaryEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -8,10 +11,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,12 +27,46 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${app.kafka.producer.acks:all}")
+    private String producerAcks;
+
+    @Value("${app.kafka.producer.idempotence:true}")
+    private boolean producerIdempotence;
+
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int producerLingerMs;
+
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String producerCompressionType;
+
+    @Value("${app.kafka.producer.max-block-ms:5000}")
+    private long producerMaxBlockMs;
+
+    private final MeterRegistry meterRegistry;
+
+    public KafkaConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BinaryEventSerializer.class);
+        // Throughput profile: batch and compress on the client, keep delivery idempotent
+        config.put(ProducerConfig.ACKS_CONFIG, producerAcks);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producerIdempotence);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerMaxBlockMs);
         return new DefaultKafkaProducerFactory<>(config);
     }
 
@@ -38,20 +76,84 @@ public class KafkaConfig {
     }
 
     @Bean
+    @Primary
     public ConsumerFactory<String, Object> consumerFactory() {
+        Map<String, Object> config = consumerConfig();
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "grocery-scout-group");
+        return withMetrics(new DefaultKafkaConsumerFactory<>(config));
+    }
+
+    /**
+     * Consumers without a group id, for listeners that assign themselves every
+     * partition of a topic. They leave no consumer group behind and commit no
+     * offsets; the container switches to manual acks when there is no group.
+     */
+    @Bean
+    public ConsumerFactory<String, Object> broadcastConsumerFactory() {
+        return withMetrics(new DefaultKafkaConsumerFactory<>(consumerConfig()));
+    }
+
+    @Bean
+    public PartitionFinder partitionFinder(KafkaAdmin kafkaAdmin) {
+        return new PartitionFinder(kafkaAdmin);
+    }
+
+    private Map<String, Object> consumerConfig() {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        config.put(ConsumerConfig.GROUP_ID_CONFIG, "grocery-scout-group");
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        return new DefaultKafkaConsumerFactory<>(config);
+        // Undecodable records surface as DeserializationException (and go to the DLT)
+        // instead of failing the poll forever
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, BinaryEventDeserializer.class);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return config;
+    }
+
+    private DefaultKafkaConsumerFactory<String, Object> withMetrics(DefaultKafkaConsumerFactory<String, Object> factory) {
+        // Client metrics, including records-lag per assigned partition
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public ListenerMetricsInterceptor listenerMetricsInterceptor() {
+        return new ListenerMetricsInterceptor(meterRegistry);
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setRecordInterceptor(listenerMetricsInterceptor());
+        return factory;
+    }
+
+    /**
+     * Batch listener factory: the listener receives a whole poll and offsets
+     * are committed only after it returns, i.e. after the batch is persisted.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setBatchInterceptor(listenerMetricsInterceptor());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(batchMaxPollRecords));
+        return factory;
+    }
+
+    /**
+     * Record listener factory over {@link #broadcastConsumerFactory()}: every
+     * node reads every record of the partitions its listeners assign.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> broadcastKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(broadcastConsumerFactory());
+        factory.setRecordInterceptor(listenerMetricsInterceptor());
         return factory;
     }
 }
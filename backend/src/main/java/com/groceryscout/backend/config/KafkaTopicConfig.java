@@ -26,6 +26,30 @@ public class KafkaTopicConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic inventoryDeductionsTopic() {
+        return TopicBuilder.name("inventory.deductions")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic inventoryLowTopic() {
+        return TopicBuilder.name("inventory.low")
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic inventoryRestockedTopic() {
+        return TopicBuilder.name("inventory.restocked")
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
     public NewTopic notificationsEmailTopic() {
         return TopicBuilder.name("notifications.email")
@@ -0,0 +1,139 @@
+package com.groceryscout.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per-listener throughput, processing time and errors, tagged by
+ * consumer group and topic:
+ * - kafka.listener.records   records handed to the listener
+ * - kafka.listener.process   time spent in the listener (per record, or per
+ *                            poll for batch listeners)
+ * - kafka.listener.errors    listener invocations that threw
+ *
+ * Interceptors run on the consumer thread, so the start time is kept in a
+ * thread local between intercept and success/failure.
+ */
+public class ListenerMetricsInterceptor
+        implements RecordInterceptor<String, Object>, BatchInterceptor<String, Object> {
+
+    public static final String RECORDS = "kafka.listener.records";
+    public static final String PROCESS = "kafka.listener.process";
+    public static final String ERRORS = "kafka.listener.errors";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> startedAt = ThreadLocal.withInitial(() -> new long[1]);
+
+    public ListenerMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ConsumerRecord<String, Object> intercept(ConsumerRecord<String, Object> record,
+            Consumer<String, Object> consumer) {
+        meters(consumer, record.topic()).records.increment();
+        startedAt.get()[0] = System.nanoTime();
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<String, Object> record, Consumer<String, Object> consumer) {
+        stop(meters(consumer, record.topic()));
+    }
+
+    @Override
+    public void failure(ConsumerRecord<String, Object> record, Exception exception,
+            Consumer<String, Object> consumer) {
+        Meters m = meters(consumer, record.topic());
+        stop(m);
+        error(m, exception);
+    }
+
+    @Override
+    public ConsumerRecords<String, Object> intercept(ConsumerRecords<String, Object> records,
+            Consumer<String, Object> consumer) {
+        for (TopicPartition partition : records.partitions()) {
+            meters(consumer, partition.topic()).records.increment(records.records(partition).size());
+        }
+        startedAt.get()[0] = System.nanoTime();
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<String, Object> records, Consumer<String, Object> consumer) {
+        Meters m = batchMeters(records, consumer);
+        if (m != null)
+            stop(m);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<String, Object> records, Exception exception,
+            Consumer<String, Object> consumer) {
+        Meters m = batchMeters(records, consumer);
+        if (m != null) {
+            stop(m);
+            error(m, exception);
+        }
+    }
+
+    private Meters batchMeters(ConsumerRecords<String, Object> records, Consumer<String, Object> consumer) {
+        // Batch containers in this app subscribe to a single topic
+        for (TopicPartition partition : records.partitions()) {
+            return meters(consumer, partition.topic());
+        }
+        return null;
+    }
+
+    private void stop(Meters m) {
+        m.process.record(System.nanoTime() - startedAt.get()[0], TimeUnit.NANOSECONDS);
+    }
+
+    private void error(Meters m, Exception exception) {
+        Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+        Counter.builder(ERRORS)
+                .tag("group", m.group)
+                .tag("topic", m.topic)
+                .tag("exception", cause.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Meters meters(Consumer<String, Object> consumer, String topic) {
+        String group = consumer.groupMetadata().groupId();
+        return meters.computeIfAbsent(group + '|' + topic, k -> new Meters(group, topic));
+    }
+
+    private final class Meters {
+        final String group;
+        final String topic;
+        final Counter records;
+        final Timer process;
+
+        Meters(String group, String topic) {
+            this.group = group;
+            this.topic = topic;
+            this.records = Counter.builder(RECORDS)
+                    .tag("group", group)
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            this.process = Timer.builder(PROCESS)
+                    .tag("group", group)
+                    .tag("topic", topic)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.groceryscout.backend.config;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Lists a topic's partitions for manually assigned listeners, e.g.
+ * partitions = "#{@partitionFinder.partitions('orders.created')}".
+ *
+ * Listener annotations are resolved before KafkaAdmin creates the declared
+ * topics, so this creates them first; a topic that gains partitions later is
+ * fully assigned again only after a restart.
+ */
+public class PartitionFinder {
+
+    private final KafkaAdmin kafkaAdmin;
+
+    public PartitionFinder(KafkaAdmin kafkaAdmin) {
+        this.kafkaAdmin = kafkaAdmin;
+    }
+
+    public String[] partitions(String topic) {
+        kafkaAdmin.initialize();
+        TopicDescription description = kafkaAdmin.describeTopics(topic).get(topic);
+        return description.partitions().stream()
+                .map(partition -> String.valueOf(partition.partition()))
+                .toArray(String[]::new);
+    }
+}
@@ -1,5 +1,6 @@
 package com.groceryscout.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,7 +37,8 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            @Value("${app.recipe-feed.cache-ttl-seconds:30}") long recipeFeedTtlSeconds) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(60)) // Default TTL 1 hour
                 .disableCachingNullValues()
@@ -47,6 +49,8 @@ public class RedisConfig {
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                // Public feed pages: short-lived so new recipes show up quickly
+                .withCacheConfiguration("recipe-feed", config.entryTtl(Duration.ofSeconds(recipeFeedTtlSeconds)))
                 .build();
     }
 }
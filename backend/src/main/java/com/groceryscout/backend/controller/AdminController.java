@@ -3,12 +3,22 @@ package com.groceryscout.backend.controller;
 import com.groceryscout.backend.dto.ProductRequest;
 import com.groceryscout.backend.entity.Product;
 import com.groceryscout.backend.entity.User;
+import com.groceryscout.backend.event.LocalEventLog;
 import com.groceryscout.backend.repository.UserRepository;
+import com.groceryscout.backend.service.AuditLogService;
+import com.groceryscout.backend.service.ConsumerHealthService;
 import com.groceryscout.backend.service.ProductService;
+import com.groceryscout.backend.service.RevenueAnalyticsService;
+import com.groceryscout.backend.service.StateRebuildService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -16,10 +26,24 @@ public class AdminController {
 
     private final ProductService productService;
     private final UserRepository userRepository;
+    private final AuditLogService auditLogService;
+    private final StateRebuildService stateRebuildService;
+    private final RevenueAnalyticsService revenueAnalyticsService;
 
-    public AdminController(ProductService productService, UserRepository userRepository) {
+    @Autowired(required = false)
+    private LocalEventLog localEventLog;
+
+    @Autowired(required = false)
+    private ConsumerHealthService consumerHealthService;
+
+    public AdminController(ProductService productService, UserRepository userRepository,
+            AuditLogService auditLogService, StateRebuildService stateRebuildService,
+            RevenueAnalyticsService revenueAnalyticsService) {
         this.productService = productService;
         this.userRepository = userRepository;
+        this.auditLogService = auditLogService;
+        this.stateRebuildService = stateRebuildService;
+        this.revenueAnalyticsService = revenueAnalyticsService;
     }
 
     // --- Product CRUD ---
@@ -49,4 +73,126 @@ public class AdminController {
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
+
+    // --- Audit Log ---
+    /**
+     * Newest-first audit entries for a time range (default: last 24 hours),
+     * optionally filtered by event type. Pass 'nextCursor' back as
+     * {@code cursor} to fetch the following page.
+     */
+    @GetMapping("/audit-logs")
+    public ResponseEntity<?> getAuditLogs(
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        try {
+            return ResponseEntity.ok(auditLogService.query(eventType != null && !eventType.isEmpty() ? eventType : null,
+                    start, end, cursor, Math.max(1, Math.min(limit, 1000))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // --- Kafka Consumers ---
+    /**
+     * Per-listener throughput, processing time, errors and lag.
+     */
+    @GetMapping("/consumers")
+    public ResponseEntity<?> getConsumerHealth() {
+        if (consumerHealthService == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Kafka is disabled"));
+        }
+        return ResponseEntity.ok(consumerHealthService.summarize());
+    }
+
+    // --- Local Event Log (Kafka disabled) ---
+    @GetMapping("/event-log")
+    public ResponseEntity<?> describeEventLog() {
+        if (localEventLog == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Local event log is not active"));
+        }
+        return ResponseEntity.ok(localEventLog.describe());
+    }
+
+    /**
+     * Rewinds (or skips) a consumer group so events are replayed from
+     * {@code offset}.
+     */
+    @PostMapping("/event-log/seek")
+    public ResponseEntity<?> seekEventLog(@RequestParam String topic, @RequestParam String group,
+            @RequestParam long offset) {
+        if (localEventLog == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Local event log is not active"));
+        }
+        try {
+            localEventLog.seek(topic, group, offset);
+            return ResponseEntity.ok(Map.of("topic", topic, "group", group, "offset", offset));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // --- State Rebuild ---
+    /**
+     * Recomputes the trending leaderboard from order history in the
+     * background; poll the returned job for progress.
+     */
+    @PostMapping("/rebuild/trending")
+    public ResponseEntity<?> rebuildTrending() {
+        try {
+            return ResponseEntity.accepted().body(stateRebuildService.startTrendingRebuild());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reports order lines whose stock deduction was never applied and the
+     * expected stock per product. With {@code apply=true} the missing
+     * deductions are re-published.
+     */
+    @PostMapping("/rebuild/inventory")
+    public ResponseEntity<?> rebuildInventory(@RequestParam(required = false) Long fromOrderId,
+            @RequestParam(defaultValue = "false") boolean apply) {
+        try {
+            return ResponseEntity.accepted().body(stateRebuildService.startInventoryRebuild(fromOrderId, apply));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recomputes the hourly revenue buckets of the inclusive date range (all
+     * history by default) from orders in the background.
+     */
+    @PostMapping("/rebuild/revenue")
+    public ResponseEntity<?> rebuildRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.accepted().body(revenueAnalyticsService.startReconcile(
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/rebuild")
+    public List<Map<String, Object>> getRebuildJobs() {
+        return stateRebuildService.getJobs();
+    }
+
+    @GetMapping("/rebuild/{jobId}")
+    public ResponseEntity<?> getRebuildJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(stateRebuildService.getJob(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
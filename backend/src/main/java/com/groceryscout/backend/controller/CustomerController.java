@@ -1,25 +1,45 @@
 package com.groceryscout.backend.controller;
 
 import com.groceryscout.backend.dto.CartRequest;
+import com.groceryscout.backend.dto.RecipeView;
 import com.groceryscout.backend.entity.*;
 import com.groceryscout.backend.repository.CartItemRepository;
 import com.groceryscout.backend.repository.RecipeRepository;
 import com.groceryscout.backend.repository.UserRepository;
 import com.groceryscout.backend.service.GeminiRecipeService;
+import com.groceryscout.backend.service.GeminiUnavailableException;
+import com.groceryscout.backend.service.InventoryAlertService;
+import com.groceryscout.backend.service.MealPlanLimitException;
 import com.groceryscout.backend.service.OrderService;
 import com.groceryscout.backend.service.ProductService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/user")
 public class CustomerController {
 
+    private static final int MAX_SHOPPING_LIST_RECIPES = 50;
+
+    @Value("${app.meal-plan.max-days:7}")
+    private int maxMealPlanDays;
+
     private final OrderService orderService;
     private final ProductService productService;
     private final GeminiRecipeService geminiRecipeService;
@@ -27,11 +47,13 @@ public class CustomerController {
     private final UserRepository userRepository;
     private final CartItemRepository cartItemRepository;
     private final com.groceryscout.backend.service.RecipeService recipeService;
+    private final InventoryAlertService inventoryAlertService;
 
     public CustomerController(OrderService orderService, ProductService productService,
             GeminiRecipeService geminiRecipeService, RecipeRepository recipeRepository,
             UserRepository userRepository, CartItemRepository cartItemRepository,
-            com.groceryscout.backend.service.RecipeService recipeService) {
+            com.groceryscout.backend.service.RecipeService recipeService,
+            InventoryAlertService inventoryAlertService) {
         this.orderService = orderService;
         this.productService = productService;
         this.geminiRecipeService = geminiRecipeService;
@@ -39,6 +61,7 @@ public class CustomerController {
         this.userRepository = userRepository;
         this.cartItemRepository = cartItemRepository;
         this.recipeService = recipeService;
+        this.inventoryAlertService = inventoryAlertService;
     }
 
     // --- Product Browsing ---
@@ -52,6 +75,23 @@ public class CustomerController {
         return productService.searchByName(q);
     }
 
+    // --- Back-in-stock alerts ---
+    @PostMapping("/products/{id}/stock-alerts")
+    public ResponseEntity<?> subscribeToStockAlerts(@PathVariable Long id, Authentication auth) {
+        User user = getUser(auth);
+        Product product = productService.getProductById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        inventoryAlertService.subscribe(user, product);
+        return ResponseEntity.ok(Map.of("message", "You will be notified when this product is back in stock"));
+    }
+
+    @DeleteMapping("/products/{id}/stock-alerts")
+    public ResponseEntity<?> unsubscribeFromStockAlerts(@PathVariable Long id, Authentication auth) {
+        User user = getUser(auth);
+        inventoryAlertService.unsubscribe(user.getId(), id);
+        return ResponseEntity.ok(Map.of("message", "Stock alert removed"));
+    }
+
     // --- Cart ---
     @GetMapping("/cart")
     public List<CartItem> getCart(Authentication auth) {
@@ -172,30 +212,139 @@ public class CustomerController {
 
     // --- Chef Assistant AI ---
     @PostMapping("/chef/generate")
-    public ResponseEntity<?> generateRecipe(@RequestBody Map<String, String> body, Authentication auth) {
+    public CompletableFuture<ResponseEntity<?>> generateRecipe(@RequestBody Map<String, String> body,
+            Authentication auth) {
         String prompt = body.get("prompt");
         if (prompt == null || prompt.isBlank()) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Prompt is required"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "Prompt is required")));
         }
         int servings = 2; // default
         try {
             servings = Integer.parseInt(body.getOrDefault("servings", "2"));
         } catch (NumberFormatException ignored) {
         }
+        CompletableFuture<Recipe> generation;
         try {
-            Recipe recipe = geminiRecipeService.generateRecipe(prompt, servings, auth.getName());
-            return ResponseEntity.ok(recipe);
+            generation = geminiRecipeService.generateRecipeAsync(prompt, servings, auth.getName());
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+            generation = CompletableFuture.failedFuture(e);
+        }
+        return generation.handle((recipe, error) -> error == null ? ResponseEntity.ok(recipe) : generationError(error));
+    }
+
+    /**
+     * Generates a meal plan concurrently. Body: {"prompt": "...", "days": 7,
+     * "servings": 2}; each day gets its own dish. Returns {"recipes": [...]}
+     * in day order.
+     */
+    @PostMapping("/chef/meal-plan")
+    public CompletableFuture<ResponseEntity<?>> generateMealPlan(@RequestBody Map<String, Object> body,
+            Authentication auth) {
+        String prompt = body.get("prompt") != null ? body.get("prompt").toString() : null;
+        if (prompt == null || prompt.isBlank()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "Prompt is required")));
+        }
+        int days;
+        int servings;
+        try {
+            days = Integer.parseInt(String.valueOf(body.getOrDefault("days", 7)));
+            servings = Integer.parseInt(String.valueOf(body.getOrDefault("servings", 2)));
+        } catch (NumberFormatException e) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "days and servings must be numbers")));
+        }
+        if (days < 1 || days > maxMealPlanDays) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "days must be between 1 and " + maxMealPlanDays)));
+        }
+
+        List<String> dayPrompts = new ArrayList<>(days);
+        for (int day = 1; day <= days; day++) {
+            dayPrompts.add(days == 1 ? prompt
+                    : prompt + " (day " + day + " of a " + days + "-day meal plan, a different dish each day)");
+        }
+        CompletableFuture<List<Recipe>> plan;
+        try {
+            plan = geminiRecipeService.generateMealPlanAsync(dayPrompts, servings, auth.getName());
+        } catch (Exception e) {
+            plan = CompletableFuture.failedFuture(e);
+        }
+        return plan.handle((recipes, error) -> error == null
+                ? ResponseEntity.ok(Map.of("recipes", recipes))
+                : generationError(error));
+    }
+
+    private static ResponseEntity<?> generationError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "Recipe generation timed out, please retry shortly"));
         }
+        if (cause instanceof GeminiUnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", cause.getMessage()));
+        }
+        if (cause instanceof MealPlanLimitException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", cause.getMessage()));
+        }
+        return ResponseEntity.internalServerError().body(Map.of("error", String.valueOf(cause.getMessage())));
+    }
+
+    /**
+     * Same as /chef/generate, streamed as server-sent events while Gemini
+     * writes the recipe (see GeminiRecipeService#generateRecipeStream).
+     */
+    @PostMapping(path = "/chef/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generateRecipeStream(@RequestBody Map<String, String> body, Authentication auth)
+            throws IOException {
+        String prompt = body.get("prompt");
+        if (prompt == null || prompt.isBlank()) {
+            SseEmitter emitter = new SseEmitter();
+            emitter.send(SseEmitter.event().name("error").data(Map.of("status", 400, "error", "Prompt is required")));
+            emitter.complete();
+            return emitter;
+        }
+        int servings = 2; // default
+        try {
+            servings = Integer.parseInt(body.getOrDefault("servings", "2"));
+        } catch (NumberFormatException ignored) {
+        }
+        return geminiRecipeService.generateRecipeStream(prompt, servings, auth.getName());
     }
 
     @GetMapping("/recipes")
-    public List<Recipe> getMyRecipes(Authentication auth) {
+    public List<RecipeView> getMyRecipes(Authentication auth) {
         User user = getUser(auth);
         return recipeService.getRecipesForUser(user);
     }
 
+    /**
+     * Keyset-paginated variant of /recipes, newest first. Pass the returned
+     * nextCursor as 'before' to get the next page.
+     */
+    @GetMapping("/recipes/paged")
+    public ResponseEntity<?> getMyRecipesPaged(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication auth) {
+        User user = getUser(auth);
+        int pageSize = Math.max(1, Math.min(size, 100));
+        List<RecipeView> page = recipeService.getRecipePageForUser(user, before, pageSize);
+        Map<String, Object> body = new HashMap<>();
+        body.put("content", page);
+        body.put("hasMore", page.size() == pageSize);
+        body.put("nextCursor", page.isEmpty() ? null : page.get(page.size() - 1).getId());
+        return ResponseEntity.ok(body);
+    }
+
     @DeleteMapping("/recipes/{id}")
 
     public ResponseEntity<?> deleteRecipe(@PathVariable Long id, Authentication auth) {
@@ -219,6 +368,33 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Consolidated shopping list for several recipes. Body: {"recipeIds": [..],
+     * "addToCart": false}; with addToCart the quantities are merged into the
+     * user's cart instead of placing an order.
+     */
+    @PostMapping("/shopping-list")
+    @Transactional
+    public ResponseEntity<?> shoppingList(@RequestBody Map<String, Object> body, Authentication auth) {
+        if (!(body.get("recipeIds") instanceof List<?> rawIds) || rawIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "recipeIds is required"));
+        }
+        if (rawIds.size() > MAX_SHOPPING_LIST_RECIPES) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_SHOPPING_LIST_RECIPES + " recipes per shopping list"));
+        }
+        try {
+            List<Long> recipeIds = rawIds.stream().map(id -> Long.valueOf(String.valueOf(id))).toList();
+            CartRequest cart = geminiRecipeService.buildShoppingList(recipeIds);
+            if (Boolean.parseBoolean(String.valueOf(body.get("addToCart")))) {
+                geminiRecipeService.addToCart(auth.getName(), cart.getItems());
+            }
+            return ResponseEntity.ok(cart);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Helper
     private User getUser(Authentication auth) {
         return userRepository.findByEmail(auth.getName())
@@ -0,0 +1,103 @@
+package com.groceryscout.backend.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for the Gemini generateContent API, for load-testing recipe
+ * generation without quota. Enable with app.gemini-stub.enabled=true and
+ * point gemini.api.base-url at http://localhost:8080/stub/gemini.
+ *
+ * Responses are delayed without holding a request thread, and a share of
+ * calls can be made to fail with 503 to exercise the circuit breaker.
+ */
+@RestController
+@RequestMapping("/stub/gemini")
+@ConditionalOnProperty(name = "app.gemini-stub.enabled", havingValue = "true")
+public class GeminiStubController {
+
+    private static final String RECIPE_JSON = """
+            {"title": "Stub Tomato Pasta",
+             "instructions": ["Boil the pasta", "Simmer the tomatoes with garlic", "Toss together"],
+             "prepTime": "20 minutes",
+             "difficulty": "Easy",
+             "ingredients": [
+               {"name": "Pasta", "quantity": "200g", "quantity_grams": 200},
+               {"name": "Tomato", "quantity": "2", "quantity_grams": 300},
+               {"name": "Garlic", "quantity": "2 cloves", "quantity_grams": 10}
+             ]}""";
+
+    private static final int STREAM_CHUNKS = 12;
+    // Single sender keeps each stream's chunks in order
+    private static final Executor SEND_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "gemini-stub-stream");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${app.gemini-stub.latency-ms:1500}")
+    private long latencyMs;
+
+    @Value("${app.gemini-stub.failure-rate:0.0}")
+    private double failureRate;
+
+    @PostMapping(value = "/models/{model}:generateContent", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<String>> generateContent(@PathVariable String model) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("{\"error\":\"stub failure\"}");
+            }
+            return ResponseEntity.ok(envelope(RECIPE_JSON));
+        }, CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Streams the canned recipe as SSE chunks spread over the configured
+     * latency, like Gemini's alt=sse mode.
+     */
+    @PostMapping(value = "/models/{model}:streamGenerateContent", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGenerateContent(@PathVariable String model) {
+        SseEmitter emitter = new SseEmitter(latencyMs + 10_000);
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            emitter.completeWithError(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "stub failure"));
+            return emitter;
+        }
+        int chunkSize = Math.max(1, RECIPE_JSON.length() / STREAM_CHUNKS);
+        long delay = latencyMs / STREAM_CHUNKS;
+        for (int i = 0; i * chunkSize < RECIPE_JSON.length(); i++) {
+            String chunk = RECIPE_JSON.substring(i * chunkSize, Math.min(RECIPE_JSON.length(), (i + 1) * chunkSize));
+            boolean last = (i + 1) * chunkSize >= RECIPE_JSON.length();
+            CompletableFuture.runAsync(() -> {
+                try {
+                    emitter.send(SseEmitter.event().data(envelope(chunk), MediaType.APPLICATION_JSON));
+                    if (last)
+                        emitter.complete();
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                }
+            }, CompletableFuture.delayedExecutor(delay * (i + 1), TimeUnit.MILLISECONDS, SEND_EXECUTOR));
+        }
+        return emitter;
+    }
+
+    private static String envelope(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + escaped + "\"}]}}]}";
+    }
+}
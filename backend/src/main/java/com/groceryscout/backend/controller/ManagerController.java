@@ -1,12 +1,27 @@
 package com.groceryscout.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryscout.backend.entity.IngredientAlias;
 import com.groceryscout.backend.entity.Order;
 import com.groceryscout.backend.entity.OrderStatus;
+import com.groceryscout.backend.service.DeadLetterService;
+import com.groceryscout.backend.service.IngredientAliasService;
+import com.groceryscout.backend.service.ManagerEventStream;
+import com.groceryscout.backend.service.OrderExportService;
 import com.groceryscout.backend.service.OrderService;
+import com.groceryscout.backend.service.RevenueAnalyticsService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +30,24 @@ import java.util.Map;
 public class ManagerController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final RevenueAnalyticsService revenueAnalyticsService;
+    private final ManagerEventStream managerEventStream;
+    private final IngredientAliasService ingredientAliasService;
+    private final ObjectMapper objectMapper;
 
-    public ManagerController(OrderService orderService) {
+    @Autowired(required = false)
+    private DeadLetterService deadLetterService;
+
+    public ManagerController(OrderService orderService, OrderExportService orderExportService,
+            RevenueAnalyticsService revenueAnalyticsService, ManagerEventStream managerEventStream,
+            IngredientAliasService ingredientAliasService, ObjectMapper objectMapper) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.revenueAnalyticsService = revenueAnalyticsService;
+        this.managerEventStream = managerEventStream;
+        this.ingredientAliasService = ingredientAliasService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/orders")
@@ -28,6 +58,16 @@ public class ManagerController {
         return orderService.getAllOrders();
     }
 
+    /**
+     * One order, for dashboards applying 'order-created' events incrementally.
+     */
+    @GetMapping("/orders/{id}")
+    public ResponseEntity<Order> getOrder(@PathVariable Long id) {
+        return orderService.getOrder(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/orders/paged")
     public ResponseEntity<?> getOrdersPaged(
             @RequestParam(defaultValue = "0") int page,
@@ -41,19 +81,163 @@ public class ManagerController {
                 "hasMore", orderPage.hasNext()));
     }
 
+    /**
+     * Streams order lines created between {@code from} and {@code to} (both
+     * inclusive dates) directly to the response as NDJSON or CSV. Written on
+     * the request thread rather than as a StreamingResponseBody so long
+     * exports are not cut off by the async request timeout.
+     */
+    @GetMapping("/orders/export")
+    public void exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            writeError(response, "Format must be 'ndjson' or 'csv'");
+            return;
+        }
+        LocalDate start = from != null ? from : LocalDate.of(1970, 1, 1);
+        LocalDate end = to != null ? to : LocalDate.now();
+        if (end.isBefore(start)) {
+            writeError(response, "'to' must not be before 'from'");
+            return;
+        }
+
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + start + "-" + end + (csv ? ".csv" : ".ndjson") + "\"");
+        orderExportService.exportOrderLines(start.atStartOfDay(), end.plusDays(1).atStartOfDay(), csv,
+                response.getOutputStream());
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+
     @PatchMapping("/orders/{id}/status")
     public Order updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> body) {
         OrderStatus newStatus = OrderStatus.valueOf(body.get("status").toUpperCase());
         return orderService.updateOrderStatus(id, newStatus);
     }
 
+    /**
+     * Revenue per hour/day/week/month for the inclusive date range, optionally
+     * restricted to one order status. Defaults to the last 30 days by day.
+     */
     @GetMapping("/analytics/revenue")
-    public ResponseEntity<?> getRevenuePerDay() {
-        return ResponseEntity.ok(orderService.getRevenuePerDay());
+    public ResponseEntity<?> getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (end.isBefore(start)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'to' must not be before 'from'"));
+        }
+        try {
+            OrderStatus orderStatus = status != null && !status.isEmpty()
+                    ? OrderStatus.valueOf(status.toUpperCase())
+                    : null;
+            return ResponseEntity.ok(revenueAnalyticsService.getRevenue(start.atStartOfDay(),
+                    end.plusDays(1).atStartOfDay(), granularity, orderStatus));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         return ResponseEntity.ok(orderService.getDashboardStats());
     }
+
+    /**
+     * Live dashboard feed: 'order-created', 'order-status' and 'stats' events.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return managerEventStream.subscribe();
+    }
+
+    /**
+     * Lists parked records on an inventory dead-letter topic.
+     */
+    @GetMapping("/dlt")
+    public ResponseEntity<?> inspectDeadLetters(
+            @RequestParam(defaultValue = "inventory.deductions-dlt") String topic,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (deadLetterService == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Kafka is not enabled"));
+        }
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "topic", topic,
+                    "records", deadLetterService.inspect(topic, Math.max(1, Math.min(limit, 500)))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Replays parked records back into the inventory pipeline.
+     */
+    @PostMapping("/dlt/replay")
+    public ResponseEntity<?> replayDeadLetters(
+            @RequestParam(defaultValue = "inventory.deductions-dlt") String topic,
+            @RequestParam(defaultValue = "1000") int max) {
+        if (deadLetterService == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Kafka is not enabled"));
+        }
+        try {
+            return ResponseEntity.ok(Map.of("topic", topic, "replayed", deadLetterService.replay(topic, Math.max(1, max))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/ingredient-aliases")
+    public List<IngredientAlias> getIngredientAliases() {
+        return ingredientAliasService.getAll();
+    }
+
+    /**
+     * Pins an ingredient name to a product. Body: {"alias": "...", "productId": 1}
+     */
+    @PostMapping("/ingredient-aliases")
+    public ResponseEntity<?> createIngredientAlias(@RequestBody Map<String, Object> body) {
+        try {
+            return ResponseEntity.ok(ingredientAliasService.create((String) body.get("alias"),
+                    toLong(body.get("productId"))));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/ingredient-aliases/{id}")
+    public ResponseEntity<?> updateIngredientAlias(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+        try {
+            return ResponseEntity.ok(ingredientAliasService.update(id, (String) body.get("alias"),
+                    toLong(body.get("productId"))));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/ingredient-aliases/{id}")
+    public ResponseEntity<?> deleteIngredientAlias(@PathVariable Long id) {
+        try {
+            ingredientAliasService.delete(id);
+            return ResponseEntity.ok(Map.of("message", "Alias deleted"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
 }
@@ -1,9 +1,12 @@
 package com.groceryscout.backend.controller;
 
+import com.groceryscout.backend.dto.RecipeFeedPage;
 import com.groceryscout.backend.entity.Product;
 import com.groceryscout.backend.entity.Recipe;
-import com.groceryscout.backend.repository.RecipeRepository;
+import com.groceryscout.backend.service.CoPurchaseService;
 import com.groceryscout.backend.service.ProductService;
+import com.groceryscout.backend.service.RecipeService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,12 +15,17 @@ import java.util.List;
 @RequestMapping("/api/public")
 public class PublicController {
 
+    private static final int LEGACY_RECIPE_LIMIT = 50;
+
     private final ProductService productService;
-    private final RecipeRepository recipeRepository;
+    private final RecipeService recipeService;
+    private final CoPurchaseService coPurchaseService;
 
-    public PublicController(ProductService productService, RecipeRepository recipeRepository) {
+    public PublicController(ProductService productService, RecipeService recipeService,
+            CoPurchaseService coPurchaseService) {
         this.productService = productService;
-        this.recipeRepository = recipeRepository;
+        this.recipeService = recipeService;
+        this.coPurchaseService = coPurchaseService;
     }
 
     @GetMapping("/products")
@@ -31,9 +39,32 @@ public class PublicController {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    @GetMapping("/products/{id}/related")
+    public List<Product> getRelatedProducts(@PathVariable Long id, @RequestParam(defaultValue = "8") int limit) {
+        return coPurchaseService.getRelatedProducts(id, Math.min(limit, 32));
+    }
+
+    /**
+     * Newest recipes with ingredients. Kept for existing clients but bounded;
+     * new clients should use the summary feed and the detail endpoint.
+     */
     @GetMapping("/recipes")
     public List<Recipe> getAllRecipes() {
-        return recipeRepository.findAll();
+        return recipeService.getLatestRecipes(LEGACY_RECIPE_LIMIT);
+    }
+
+    @GetMapping("/recipes/feed")
+    public RecipeFeedPage getRecipeFeed(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return recipeService.getFeedPage(Math.max(0, page), Math.max(1, Math.min(size, 50)));
+    }
+
+    @GetMapping("/recipes/{id}")
+    public ResponseEntity<Recipe> getRecipe(@PathVariable Long id) {
+        return recipeService.getRecipeDetail(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/categories")
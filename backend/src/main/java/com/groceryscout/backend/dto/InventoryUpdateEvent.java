@@ -0,0 +1,18 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of 'inventory.updates': stock of one product changed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryUpdateEvent {
+    private Long productId;
+    private String productName;
+    private int oldCount;
+    private int newCount;
+}
@@ -0,0 +1,18 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of 'inventory.low': a product dropped to or below its threshold.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LowStockEvent {
+    private Long productId;
+    private String productName;
+    private int count;
+    private int threshold;
+}
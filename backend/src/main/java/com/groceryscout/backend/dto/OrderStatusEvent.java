@@ -0,0 +1,20 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of 'notifications.email': an order moved from one status to another.
+ * userId (the customer to notify) was added in schema version 2 and is null
+ * on events written by older producers.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusEvent {
+    private Long orderId;
+    private String oldStatus;
+    private String status;
+    private Long userId;
+}
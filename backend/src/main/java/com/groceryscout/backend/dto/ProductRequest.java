@@ -11,6 +11,7 @@ public class ProductRequest {
     private String unit;
     private String category;
     private Integer inventoryCount;
+    private Integer lowStockThreshold;
     private String imageUrl;
     private Boolean isActive;
 }
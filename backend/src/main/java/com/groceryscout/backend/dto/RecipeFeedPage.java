@@ -0,0 +1,17 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeFeedPage {
+    private List<RecipeSummary> content;
+    private int currentPage;
+    private int size;
+    private boolean hasMore;
+}
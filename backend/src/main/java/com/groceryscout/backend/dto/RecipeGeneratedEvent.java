@@ -0,0 +1,16 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of 'recipes.generated'.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeGeneratedEvent {
+    private Long recipeId;
+    private String ingredients;
+}
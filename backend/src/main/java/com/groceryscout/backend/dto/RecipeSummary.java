@@ -0,0 +1,21 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Feed card for a recipe; the full recipe comes from the detail endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSummary {
+    private Long id;
+    private String title;
+    private String prepTime;
+    private String difficulty;
+    private Integer servings;
+    private String imageUrl;
+    private Long ingredientCount;
+}
@@ -0,0 +1,58 @@
+package com.groceryscout.backend.dto;
+
+import com.groceryscout.backend.entity.Ingredient;
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.entity.Recipe;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable copy of a recipe with its ingredients, as served by the user's
+ * recipe list. Safe to cache and share between requests, unlike the managed
+ * {@link Recipe} entity.
+ */
+@Value
+public class RecipeView {
+    Long id;
+    String title;
+    String instructions;
+    String prepTime;
+    String difficulty;
+    Integer servings;
+    String imageUrl;
+    List<IngredientView> ingredients;
+
+    public static RecipeView from(Recipe recipe) {
+        return new RecipeView(recipe.getId(), recipe.getTitle(), recipe.getInstructions(), recipe.getPrepTime(),
+                recipe.getDifficulty(), recipe.getServings(), recipe.getImageUrl(),
+                recipe.getIngredients().stream().map(IngredientView::from).toList());
+    }
+
+    @Value
+    public static class IngredientView {
+        Long id;
+        String name;
+        String quantity;
+        ProductView linkedProduct;
+
+        static IngredientView from(Ingredient ingredient) {
+            Product product = ingredient.getLinkedProduct();
+            return new IngredientView(ingredient.getId(), ingredient.getName(), ingredient.getQuantity(),
+                    product == null ? null
+                            : new ProductView(product.getId(), product.getName(), product.getPrice(),
+                                    product.getUnit(), product.getWeightInGrams(), product.getImageUrl()));
+        }
+    }
+
+    @Value
+    public static class ProductView {
+        Long id;
+        String name;
+        BigDecimal price;
+        String unit;
+        Integer weightInGrams;
+        String imageUrl;
+    }
+}
@@ -0,0 +1,20 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Payload of 'inventory.restocked': a product is back above its threshold.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RestockEvent {
+    private Long productId;
+    private String productName;
+    private int count;
+    private List<Long> subscriberIds;
+}
@@ -0,0 +1,19 @@
+package com.groceryscout.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-product unit of work split out of an 'orders.created' event.
+ * Published keyed by productId so all deductions for one product land on the
+ * same partition and are applied in order.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockDeductionEvent {
+    private Long orderId;
+    private Long productId;
+    private int quantity;
+}
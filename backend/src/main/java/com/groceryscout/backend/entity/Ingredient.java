@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
-@Table(name = "ingredients")
+@Table(name = "ingredients", indexes = @Index(name = "idx_ingredients_recipe_id", columnList = "recipe_id"))
 @Data
 public class Ingredient {
 
@@ -23,6 +23,7 @@ public class Ingredient {
 
     private String quantity;
 
+    // EAGER for the same reason as Recipe.ingredients
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "linked_product_id")
     private Product linkedProduct;
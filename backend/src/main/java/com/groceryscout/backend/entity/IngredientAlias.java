@@ -0,0 +1,49 @@
+package com.groceryscout.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pins a normalized ingredient name (e.g. "red onion") to a catalog product.
+ * Rows are learned from successful fuzzy matches or maintained by managers;
+ * manual rows are never overwritten by learning.
+ */
+@Entity
+@Table(name = "ingredient_aliases")
+@Data
+@NoArgsConstructor
+public class IngredientAlias {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String alias;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+
+    private boolean manual;
+
+    private LocalDateTime updatedAt;
+
+    public IngredientAlias(String alias, Product product, boolean manual) {
+        this.alias = alias;
+        this.product = product;
+        this.manual = manual;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package com.groceryscout.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger of inventory work units already applied, keyed
+ * "orderId:productId". Written in the same transaction as the stock change
+ * so redelivered events are recognised and skipped.
+ */
+@Entity
+@Table(name = "processed_events", uniqueConstraints = @UniqueConstraint(columnNames = "event_key"),
+        indexes = @Index(name = "idx_processed_events_processed_at", columnList = "processed_at"))
+@Data
+@NoArgsConstructor
+public class ProcessedEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_key", nullable = false, length = 64)
+    private String eventKey;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
@@ -28,6 +28,9 @@ public class Product {
 
     private Integer inventoryCount;
 
+    // Stock level at or below which a low-stock alert fires; null uses the default
+    private Integer lowStockThreshold;
+
     private Integer weightInGrams;
 
     private String imageUrl;
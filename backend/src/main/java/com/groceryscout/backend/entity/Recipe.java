@@ -6,7 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes", indexes = @Index(name = "idx_recipes_creator_id_id", columnList = "creator_id, id"))
 @Data
 public class Recipe {
 
@@ -24,6 +24,9 @@ public class Recipe {
 
     private String difficulty;
 
+    // Servings the ingredient quantities were generated for (null for older recipes)
+    private Integer servings;
+
     @Column(columnDefinition = "TEXT")
     private String imageUrl;
 
@@ -32,6 +35,8 @@ public class Recipe {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private User creator;
 
+    // EAGER on purpose: open-in-view is off and recipes are serialized and handed to generation threads
+    // after their session closes. Multi-recipe reads fetch-join or project instead (see RecipeRepository).
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private List<Ingredient> ingredients = new ArrayList<>();
 }
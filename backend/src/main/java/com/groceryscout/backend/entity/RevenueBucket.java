@@ -0,0 +1,34 @@
+package com.groceryscout.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly pre-aggregated order count and revenue per status.
+ * Maintained incrementally by the order lifecycle so analytics queries scan
+ * one row per hour instead of every order.
+ */
+@Entity
+@Table(name = "revenue_buckets", uniqueConstraints = @UniqueConstraint(columnNames = { "bucket_start", "status" }))
+@Data
+public class RevenueBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
@@ -0,0 +1,29 @@
+package com.groceryscout.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last alerted low/ok state of a product and when each kind of alert last
+ * went out. Shared by all nodes, so whichever node owns a product's
+ * 'inventory.updates' partition after a rebalance sees the same cooldowns.
+ */
+@Entity
+@Table(name = "stock_alert_state")
+@Data
+@NoArgsConstructor
+public class StockAlertState {
+
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private Boolean alertedLow;
+
+    private LocalDateTime lastLowAlertAt;
+
+    private LocalDateTime lastRestockAlertAt;
+}
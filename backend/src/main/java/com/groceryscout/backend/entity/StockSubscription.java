@@ -0,0 +1,41 @@
+package com.groceryscout.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer's request to be notified when a product is back in stock.
+ */
+@Entity
+@Table(name = "stock_subscriptions", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "product_id" }))
+@Data
+@NoArgsConstructor
+public class StockSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    private LocalDateTime createdAt;
+
+    public StockSubscription(User user, Product product) {
+        this.user = user;
+        this.product = product;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,40 @@
+package com.groceryscout.backend.event;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka value deserializer for {@link EventCodec} frames.
+ *
+ * Records written before the binary format (JSON) are still read during the
+ * rollout: they are bound straight to the topic's event type, so listeners
+ * always receive typed events.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (EventCodec.isEncoded(data)) {
+                return EventCodec.decode(data);
+            }
+            Class<?> legacyType = EventCodec.typeForTopic(topic);
+            if (legacyType != null && data.length > 0 && data[0] == '{') {
+                return LEGACY_MAPPER.readValue(data, legacyType);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            throw new SerializationException("Cannot deserialize event from topic " + topic, e);
+        }
+        throw new SerializationException("Unrecognized event format on topic " + topic);
+    }
+}
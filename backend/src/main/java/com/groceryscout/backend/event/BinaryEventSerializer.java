@@ -0,0 +1,30 @@
+package com.groceryscout.backend.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing {@link EventCodec} frames. No type headers
+ * are added; the schema id inside the frame identifies the event.
+ *
+ * byte[] values are passed through unchanged: the dead-letter recoverer
+ * publishes records that failed deserialization as their raw bytes through
+ * the same template.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof byte[] raw) {
+            return raw;
+        }
+        try {
+            return EventCodec.encode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot serialize event for topic " + topic, e);
+        }
+    }
+}
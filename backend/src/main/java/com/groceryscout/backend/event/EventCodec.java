@@ -0,0 +1,368 @@
+package com.groceryscout.backend.event;
+
+import com.groceryscout.backend.dto.InventoryUpdateEvent;
+import com.groceryscout.backend.dto.LowStockEvent;
+import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.dto.OrderStatusEvent;
+import com.groceryscout.backend.dto.RecipeGeneratedEvent;
+import com.groceryscout.backend.dto.RestockEvent;
+import com.groceryscout.backend.dto.StockDeductionEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, versioned binary encoding for domain events.
+ *
+ * Layout: magic byte, schema id, schema version, then the fields in schema
+ * order. Integers are zigzag varints, strings are varint length + UTF-8, and
+ * nullable ids carry a one-byte presence flag.
+ *
+ * Evolution rule: fields are only ever appended, and each new field bumps
+ * the schema version. Readers read a field only if the frame's version
+ * includes it ({@link Reader#has}), leaving the default otherwise, and ignore
+ * trailing bytes written by a newer version, so producers and consumers can
+ * be upgraded independently. Current versions:
+ * - OrderStatusEvent v2: userId
+ */
+public final class EventCodec {
+
+    public static final byte MAGIC = (byte) 0xE5;
+
+    private static final Map<Class<?>, Schema<?>> SCHEMAS_BY_TYPE = new HashMap<>();
+    private static final Schema<?>[] SCHEMAS_BY_ID = new Schema<?>[16];
+    private static final Map<String, Class<?>> TYPES_BY_TOPIC = Map.of(
+            "orders.created", OrderEvent.class,
+            "notifications.email", OrderStatusEvent.class,
+            "recipes.generated", RecipeGeneratedEvent.class,
+            "inventory.updates", InventoryUpdateEvent.class,
+            "inventory.low", LowStockEvent.class,
+            "inventory.restocked", RestockEvent.class,
+            "inventory.deductions", StockDeductionEvent.class);
+
+    static {
+        register(new Schema<>(1, 1, OrderEvent.class) {
+            @Override
+            void write(OrderEvent e, Writer out) {
+                out.writeNullableLong(e.getOrderId());
+                out.writeNullableLong(e.getUserId());
+                List<OrderEvent.OrderItemDto> items = e.getItems() != null ? e.getItems() : List.of();
+                out.writeVarInt(items.size());
+                for (OrderEvent.OrderItemDto item : items) {
+                    out.writeNullableLong(item.getProductId());
+                    out.writeVarInt(item.getQuantity());
+                }
+            }
+
+            @Override
+            OrderEvent read(Reader in, int version) {
+                Long orderId = in.readNullableLong();
+                Long userId = in.readNullableLong();
+                int size = in.readCount();
+                List<OrderEvent.OrderItemDto> items = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    items.add(new OrderEvent.OrderItemDto(in.readNullableLong(), in.readVarInt()));
+                }
+                return new OrderEvent(orderId, userId, items);
+            }
+        });
+        register(new Schema<>(2, 2, OrderStatusEvent.class) {
+            @Override
+            void write(OrderStatusEvent e, Writer out) {
+                out.writeNullableLong(e.getOrderId());
+                out.writeString(e.getOldStatus());
+                out.writeString(e.getStatus());
+                // v2
+                out.writeNullableLong(e.getUserId());
+            }
+
+            @Override
+            OrderStatusEvent read(Reader in, int version) {
+                OrderStatusEvent event = new OrderStatusEvent(in.readNullableLong(), in.readString(),
+                        in.readString(), null);
+                if (in.has(version, 2))
+                    event.setUserId(in.readNullableLong());
+                return event;
+            }
+        });
+        register(new Schema<>(3, 1, RecipeGeneratedEvent.class) {
+            @Override
+            void write(RecipeGeneratedEvent e, Writer out) {
+                out.writeNullableLong(e.getRecipeId());
+                out.writeString(e.getIngredients());
+            }
+
+            @Override
+            RecipeGeneratedEvent read(Reader in, int version) {
+                return new RecipeGeneratedEvent(in.readNullableLong(), in.readString());
+            }
+        });
+        register(new Schema<>(4, 1, InventoryUpdateEvent.class) {
+            @Override
+            void write(InventoryUpdateEvent e, Writer out) {
+                out.writeNullableLong(e.getProductId());
+                out.writeString(e.getProductName());
+                out.writeVarInt(e.getOldCount());
+                out.writeVarInt(e.getNewCount());
+            }
+
+            @Override
+            InventoryUpdateEvent read(Reader in, int version) {
+                return new InventoryUpdateEvent(in.readNullableLong(), in.readString(), in.readVarInt(),
+                        in.readVarInt());
+            }
+        });
+        register(new Schema<>(5, 1, LowStockEvent.class) {
+            @Override
+            void write(LowStockEvent e, Writer out) {
+                out.writeNullableLong(e.getProductId());
+                out.writeString(e.getProductName());
+                out.writeVarInt(e.getCount());
+                out.writeVarInt(e.getThreshold());
+            }
+
+            @Override
+            LowStockEvent read(Reader in, int version) {
+                return new LowStockEvent(in.readNullableLong(), in.readString(), in.readVarInt(), in.readVarInt());
+            }
+        });
+        register(new Schema<>(6, 1, RestockEvent.class) {
+            @Override
+            void write(RestockEvent e, Writer out) {
+                out.writeNullableLong(e.getProductId());
+                out.writeString(e.getProductName());
+                out.writeVarInt(e.getCount());
+                List<Long> subscribers = e.getSubscriberIds() != null ? e.getSubscriberIds() : List.of();
+                out.writeVarInt(subscribers.size());
+                for (Long id : subscribers) {
+                    out.writeVarLong(id);
+                }
+            }
+
+            @Override
+            RestockEvent read(Reader in, int version) {
+                Long productId = in.readNullableLong();
+                String productName = in.readString();
+                int count = in.readVarInt();
+                int size = in.readCount();
+                List<Long> subscribers = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    subscribers.add(in.readVarLong());
+                }
+                return new RestockEvent(productId, productName, count, subscribers);
+            }
+        });
+        register(new Schema<>(7, 1, StockDeductionEvent.class) {
+            @Override
+            void write(StockDeductionEvent e, Writer out) {
+                out.writeNullableLong(e.getOrderId());
+                out.writeNullableLong(e.getProductId());
+                out.writeVarInt(e.getQuantity());
+            }
+
+            @Override
+            StockDeductionEvent read(Reader in, int version) {
+                return new StockDeductionEvent(in.readNullableLong(), in.readNullableLong(), in.readVarInt());
+            }
+        });
+    }
+
+    private EventCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return SCHEMAS_BY_TYPE.containsKey(type);
+    }
+
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length >= 3 && data[0] == MAGIC;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static byte[] encode(Object event) {
+        Schema<Object> schema = (Schema<Object>) SCHEMAS_BY_TYPE.get(event.getClass());
+        if (schema == null) {
+            throw new IllegalArgumentException("No event schema registered for " + event.getClass().getName());
+        }
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(schema.id);
+        out.writeByte(schema.version);
+        schema.write(event, out);
+        return out.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isEncoded(data)) {
+            throw new IllegalArgumentException("Not an encoded event");
+        }
+        int id = data[1] & 0xFF;
+        Schema<?> schema = id < SCHEMAS_BY_ID.length ? SCHEMAS_BY_ID[id] : null;
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown event schema id " + id);
+        }
+        return schema.read(new Reader(data, 3), data[2] & 0xFF);
+    }
+
+    /**
+     * Event type carried by a topic, including its retry and dead-letter
+     * topics; null if the topic is not a domain event topic.
+     */
+    public static Class<?> typeForTopic(String topic) {
+        String base = topic.replaceFirst("-(dlt|retry(-\\d+)?)$", "");
+        return TYPES_BY_TOPIC.get(base);
+    }
+
+    private static void register(Schema<?> schema) {
+        SCHEMAS_BY_TYPE.put(schema.type, schema);
+        SCHEMAS_BY_ID[schema.id] = schema;
+    }
+
+    private abstract static class Schema<T> {
+        final int id;
+        final int version;
+        final Class<T> type;
+
+        Schema(int id, int version, Class<T> type) {
+            this.id = id;
+            this.version = version;
+            this.type = type;
+        }
+
+        abstract void write(T event, Writer out);
+
+        abstract T read(Reader in, int version);
+    }
+
+    static final class Writer {
+        private byte[] buf = new byte[64];
+        private int pos;
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value);
+        }
+
+        void writeVarLong(long value) {
+            long v = (value << 1) ^ (value >> 63);
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeNullableLong(Long value) {
+            if (value == null) {
+                writeByte(0);
+            } else {
+                writeByte(1);
+                writeVarLong(value);
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf, int offset) {
+            this.buf = buf;
+            this.pos = offset;
+        }
+
+        boolean hasRemaining() {
+            return pos < buf.length;
+        }
+
+        /**
+         * Whether a field added in schema version {@code since} is present in
+         * a frame written at {@code version}.
+         */
+        boolean has(int version, int since) {
+            return version >= since && hasRemaining();
+        }
+
+        /**
+         * Element count of a list; every element takes at least one byte, so
+         * a count beyond the remaining bytes is rejected before allocating.
+         */
+        int readCount() {
+            int count = readVarInt();
+            if (count < 0 || count > buf.length - pos) {
+                throw new IllegalArgumentException("Truncated event or invalid element count " + count);
+            }
+            return count;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (pos >= buf.length || shift > 63) {
+                    throw new IllegalArgumentException("Truncated or malformed varint");
+                }
+                b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        Long readNullableLong() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("Truncated event");
+            }
+            return buf[pos++] == 0 ? null : readVarLong();
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length < 0) {
+                return null;
+            }
+            if (length > buf.length - pos) {
+                throw new IllegalArgumentException("Truncated event");
+            }
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package com.groceryscout.backend.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded append-only event log used in place of Kafka when
+ * kafka.enabled=false (edge stores without a broker).
+ *
+ * Each topic is a directory of fixed-size, memory-mapped segment files named
+ * by their first offset. A record is framed as [length][crc32][EventCodec
+ * bytes]; on startup segments are scanned and a torn tail is discarded.
+ * Durability follows app.event-log.fsync: 'always' forces the segment after
+ * every append, 'interval' on a timer, 'never' leaves it to the OS.
+ *
+ * Consumers subscribe per (topic, group): a poller thread delivers events and
+ * persists the group's offset as they succeed (at-least-once). Handlers
+ * registered with {@link #subscribeEach} get one event at a time; batch
+ * handlers ({@link #subscribe}) must apply a batch all-or-nothing (e.g. in
+ * one transaction). A batch that keeps failing is split and delivered event
+ * by event, so only the events that fail on their own are retried and parked
+ * on the topic's '-dlt' log, and the offset moves past everything that was
+ * applied. A null group tails the topic from its end without tracking
+ * offsets. Offsets can be moved with {@link #seek} to replay.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalEventLog.class);
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_DELIVERY_ATTEMPTS = 3;
+
+    @Value("${app.event-log.dir:data/event-log}")
+    private String baseDir;
+
+    @Value("${app.event-log.segment-bytes:16777216}")
+    private int segmentBytes;
+
+    @Value("${app.event-log.fsync:interval}")
+    private String fsyncPolicy;
+
+    @Value("${app.event-log.retain-segments:8}")
+    private int retainSegments;
+
+    @Value("${app.event-log.max-batch:500}")
+    private int maxBatch;
+
+    private final Map<String, TopicLog> topics = new ConcurrentHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private boolean fsyncAlways;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!List.of("always", "interval", "never").contains(fsyncPolicy)) {
+            throw new IllegalStateException("app.event-log.fsync must be always, interval or never");
+        }
+        fsyncAlways = fsyncPolicy.equals("always");
+        Path root = Paths.get(baseDir);
+        Files.createDirectories(root);
+        try (Stream<Path> dirs = Files.list(root)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                topic(dir.getFileName().toString());
+            }
+        }
+        log.info("Local event log opened at {} ({} topics, fsync={})", root.toAbsolutePath(), topics.size(),
+                fsyncPolicy);
+    }
+
+    /**
+     * Appends an event and wakes its subscribers.
+     *
+     * @return the offset assigned to the event
+     */
+    public long append(String topic, Object event) {
+        return topic(topic).append(EventCodec.encode(event));
+    }
+
+    /**
+     * Starts delivering the topic to {@code handler} in batches from the
+     * group's committed offset (or the current end if {@code group} is null).
+     * The handler must apply each batch all-or-nothing.
+     */
+    public void subscribe(String topic, String group, Consumer<List<Object>> handler) {
+        Subscription subscription = new Subscription(topic(topic), group, handler, null);
+        subscriptions.add(subscription);
+        subscription.start();
+    }
+
+    /**
+     * Like {@link #subscribe}, but delivers one event at a time together with
+     * its offset; the group's offset is committed after every event.
+     */
+    public void subscribeEach(String topic, String group, EventHandler handler) {
+        subscribeEach(topic, group, null, handler);
+    }
+
+    /**
+     * Like {@link #subscribeEach(String, String, EventHandler)}, but moves
+     * the group to {@code startOffset} (when not null) before the first
+     * delivery, for consumers whose state was restored from a snapshot.
+     */
+    public void subscribeEach(String topic, String group, Long startOffset, EventHandler handler) {
+        Subscription subscription = new Subscription(topic(topic), group, null, handler);
+        if (startOffset != null) {
+            subscription.seekTo = Math.max(0, startOffset);
+        }
+        subscriptions.add(subscription);
+        subscription.start();
+    }
+
+    /**
+     * Moves a group's position; delivery resumes from {@code offset}.
+     */
+    public void seek(String topic, String group, long offset) {
+        Subscription subscription = subscriptions.stream()
+                .filter(s -> s.topicLog.name.equals(topic) && group.equals(s.group))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No subscription for " + topic + "/" + group));
+        subscription.seekTo = Math.max(0, offset);
+        subscription.topicLog.wakeUp();
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (TopicLog topicLog : topics.values()) {
+            Map<String, Object> groups = new LinkedHashMap<>();
+            long end = topicLog.nextOffset;
+            for (Subscription s : subscriptions) {
+                if (s.topicLog == topicLog && s.group != null) {
+                    groups.put(s.group, Map.of("committed", s.committed, "lag", end - s.committed));
+                }
+            }
+            result.put(topicLog.name, Map.of(
+                    "startOffset", topicLog.startOffset(),
+                    "endOffset", end,
+                    "segments", topicLog.segments.size(),
+                    "groups", groups));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.event-log.flush-interval-ms:1000}")
+    public void flush() {
+        if (!fsyncPolicy.equals("interval"))
+            return;
+        topics.values().forEach(TopicLog::force);
+    }
+
+    @PreDestroy
+    void close() {
+        subscriptions.forEach(Subscription::stop);
+        for (TopicLog topicLog : topics.values()) {
+            if (!fsyncPolicy.equals("never"))
+                topicLog.force();
+            topicLog.close();
+        }
+    }
+
+    private TopicLog topic(String name) {
+        return topics.computeIfAbsent(name, n -> {
+            try {
+                return new TopicLog(n, Paths.get(baseDir, n));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open event log topic " + n, e);
+            }
+        });
+    }
+
+    private static long crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    /**
+     * One memory-mapped segment file. {@code limit} and {@code endOffset} are
+     * published after each append, so readers never see a partial record.
+     */
+    private final class Segment {
+        final long baseOffset;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        volatile int limit;
+        volatile long endOffset;
+
+        Segment(Path path, long baseOffset) throws IOException {
+            this.path = path;
+            this.baseOffset = baseOffset;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, channel.size()));
+            recover();
+        }
+
+        private void recover() {
+            int pos = 0;
+            long offset = baseOffset;
+            while (pos + HEADER_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(pos);
+                if (length <= 0 || pos + HEADER_BYTES + length > buffer.capacity())
+                    break;
+                byte[] payload = new byte[length];
+                buffer.get(pos + HEADER_BYTES, payload);
+                if ((int) crc(payload) != buffer.getInt(pos + 4)) {
+                    log.warn("Discarding torn record at {}:{}", path.getFileName(), pos);
+                    break;
+                }
+                pos += HEADER_BYTES + length;
+                offset++;
+            }
+            limit = pos;
+            endOffset = offset;
+        }
+
+        boolean fits(int length) {
+            return limit + HEADER_BYTES + length <= buffer.capacity();
+        }
+
+        void write(byte[] payload) {
+            int pos = limit;
+            buffer.putInt(pos + 4, (int) crc(payload));
+            buffer.put(pos + HEADER_BYTES, payload);
+            buffer.putInt(pos, payload.length);
+            limit = pos + HEADER_BYTES + payload.length;
+            endOffset = endOffset + 1;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close segment {}", path, e);
+            }
+        }
+    }
+
+    private final class TopicLog {
+        final String name;
+        final Path dir;
+        final List<Segment> segments = new CopyOnWriteArrayList<>();
+        volatile long nextOffset;
+
+        TopicLog(String name, Path dir) throws IOException {
+            this.name = name;
+            this.dir = dir;
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(dir)) {
+                files = list.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+            }
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                segments.add(new Segment(file, Long.parseLong(fileName.substring(0, fileName.length() - 4))));
+            }
+            if (segments.isEmpty()) {
+                segments.add(newSegment(0));
+            }
+            nextOffset = active().endOffset;
+        }
+
+        synchronized long append(byte[] payload) {
+            if (HEADER_BYTES + payload.length > segmentBytes) {
+                throw new IllegalArgumentException("Event larger than segment size on " + name);
+            }
+            Segment segment = active();
+            if (!segment.fits(payload.length)) {
+                segment = roll();
+            }
+            segment.write(payload);
+            if (fsyncAlways)
+                segment.buffer.force();
+            long offset = nextOffset++;
+            notifyAll();
+            return offset;
+        }
+
+        synchronized void awaitBeyond(long offset, long timeoutMs) throws InterruptedException {
+            if (nextOffset <= offset)
+                wait(timeoutMs);
+        }
+
+        synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        long startOffset() {
+            return segments.get(0).baseOffset;
+        }
+
+        Segment active() {
+            return segments.get(segments.size() - 1);
+        }
+
+        void force() {
+            active().buffer.force();
+        }
+
+        void close() {
+            segments.forEach(Segment::close);
+        }
+
+        private Segment roll() {
+            Segment previous = active();
+            previous.buffer.force();
+            Segment next;
+            try {
+                next = newSegment(nextOffset);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot roll event log segment for " + name, e);
+            }
+            segments.add(next);
+            enforceRetention();
+            return next;
+        }
+
+        private Segment newSegment(long baseOffset) throws IOException {
+            return new Segment(dir.resolve(String.format("%020d.log", baseOffset)), baseOffset);
+        }
+
+        /**
+         * Drops the oldest segments beyond the retention count once every
+         * tracked group has consumed past them.
+         */
+        private void enforceRetention() {
+            long minCommitted = Long.MAX_VALUE;
+            for (Subscription s : subscriptions) {
+                if (s.topicLog == this && s.group != null)
+                    minCommitted = Math.min(minCommitted, s.committed);
+            }
+            while (segments.size() > retainSegments && segments.get(0).endOffset <= minCommitted) {
+                Segment oldest = segments.remove(0);
+                oldest.close();
+                try {
+                    Files.deleteIfExists(oldest.path);
+                } catch (IOException e) {
+                    log.warn("Failed to delete segment {}", oldest.path, e);
+                }
+            }
+        }
+
+        /**
+         * Reads up to {@code max} records at the cursor, advancing it.
+         */
+        List<Record> read(Cursor cursor, int max) {
+            List<Record> batch = new ArrayList<>();
+            while (batch.size() < max) {
+                Segment segment = cursor.segment;
+                if (cursor.position >= segment.limit) {
+                    int index = segments.indexOf(segment);
+                    if (index < 0) {
+                        // Segment was removed by retention under a tailing reader
+                        Cursor moved = seek(cursor.offset);
+                        cursor.segment = moved.segment;
+                        cursor.position = moved.position;
+                        cursor.offset = moved.offset;
+                        continue;
+                    }
+                    if (index == segments.size() - 1)
+                        break;
+                    cursor.segment = segments.get(index + 1);
+                    cursor.position = 0;
+                    continue;
+                }
+                int length = segment.buffer.getInt(cursor.position);
+                byte[] payload = new byte[length];
+                segment.buffer.get(cursor.position + HEADER_BYTES, payload);
+                cursor.position += HEADER_BYTES + length;
+                cursor.offset++;
+                try {
+                    batch.add(new Record(cursor.offset - 1, EventCodec.decode(payload)));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping undecodable event at {}@{}: {}", name, cursor.offset - 1, e.getMessage());
+                }
+            }
+            return batch;
+        }
+
+        /**
+         * Positions a cursor at {@code offset}, clamped to the retained range.
+         */
+        Cursor seek(long offset) {
+            long target = Math.min(Math.max(offset, startOffset()), nextOffset);
+            Segment segment = segments.get(0);
+            for (Segment s : segments) {
+                if (s.baseOffset <= target)
+                    segment = s;
+            }
+            Cursor cursor = new Cursor(segment, 0, segment.baseOffset);
+            while (cursor.offset < target && cursor.position < segment.limit) {
+                cursor.position += HEADER_BYTES + segment.buffer.getInt(cursor.position);
+                cursor.offset++;
+            }
+            return cursor;
+        }
+    }
+
+    /**
+     * Receives one event and its offset in the topic.
+     */
+    @FunctionalInterface
+    public interface EventHandler {
+        void handle(Object event, long offset);
+    }
+
+    private record Record(long offset, Object event) {
+    }
+
+    private static final class Cursor {
+        Segment segment;
+        int position;
+        long offset;
+
+        Cursor(Segment segment, int position, long offset) {
+            this.segment = segment;
+            this.position = position;
+            this.offset = offset;
+        }
+    }
+
+    private final class Subscription implements Runnable {
+        final TopicLog topicLog;
+        final String group;
+        final Consumer<List<Object>> batchHandler;
+        final EventHandler eventHandler;
+        final FileChannel offsetChannel;
+        final Thread thread;
+        volatile long committed;
+        volatile long seekTo = -1;
+        volatile boolean running = true;
+
+        Subscription(TopicLog topicLog, String group, Consumer<List<Object>> batchHandler,
+                EventHandler eventHandler) {
+            this.topicLog = topicLog;
+            this.group = group;
+            this.batchHandler = batchHandler;
+            this.eventHandler = eventHandler;
+            if (group != null) {
+                try {
+                    offsetChannel = FileChannel.open(topicLog.dir.resolve(group + ".offset"),
+                            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    ByteBuffer buf = ByteBuffer.allocate(8);
+                    committed = offsetChannel.read(buf, 0) == 8 ? buf.flip().getLong() : 0;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot open offsets for " + topicLog.name + "/" + group, e);
+                }
+            } else {
+                offsetChannel = null;
+                committed = topicLog.nextOffset;
+            }
+            thread = new Thread(this, "event-log-" + topicLog.name + "-" + (group != null ? group : "tail"));
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+            if (offsetChannel != null) {
+                try {
+                    offsetChannel.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close offset file for {}/{}", topicLog.name, group);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Cursor cursor = topicLog.seek(committed);
+            while (running) {
+                try {
+                    if (seekTo >= 0) {
+                        cursor = topicLog.seek(seekTo);
+                        seekTo = -1;
+                        commit(cursor.offset);
+                    }
+                    List<Record> batch = topicLog.read(cursor, maxBatch);
+                    if (batch.isEmpty()) {
+                        if (cursor.offset > committed)
+                            commit(cursor.offset); // only undecodable records were read
+                        topicLog.awaitBeyond(cursor.offset, 500);
+                        continue;
+                    }
+                    // A failed all-or-nothing batch applied nothing, so it can be split safely
+                    if (eventHandler != null || !attempt(() -> batchHandler.accept(events(batch)))) {
+                        deliverEach(batch);
+                    }
+                    commit(cursor.offset);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Event log subscription {}/{} failed; resuming from offset {}", topicLog.name, group,
+                            committed, e);
+                    cursor = topicLog.seek(committed);
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Delivers events one at a time, parking only those that keep failing
+         * and committing past each one.
+         */
+        private void deliverEach(List<Record> batch) throws InterruptedException {
+            for (Record record : batch) {
+                boolean delivered = attempt(() -> {
+                    if (eventHandler != null) {
+                        eventHandler.handle(record.event(), record.offset());
+                    } else {
+                        batchHandler.accept(List.of(record.event()));
+                    }
+                });
+                if (!delivered) {
+                    log.error("Parking event {}@{} from {}/{} after {} attempts", topicLog.name, record.offset(),
+                            topicLog.name, group, MAX_DELIVERY_ATTEMPTS);
+                    topic(topicLog.name + "-dlt").append(EventCodec.encode(record.event()));
+                }
+                commit(record.offset() + 1);
+            }
+        }
+
+        /**
+         * Runs {@code delivery} up to MAX_DELIVERY_ATTEMPTS times with backoff.
+         *
+         * @return false if every attempt failed
+         */
+        private boolean attempt(Runnable delivery) throws InterruptedException {
+            for (int attempt = 1;; attempt++) {
+                try {
+                    delivery.run();
+                    return true;
+                } catch (RuntimeException e) {
+                    if (attempt >= MAX_DELIVERY_ATTEMPTS) {
+                        log.warn("Delivery on {}/{} failed after {} attempts", topicLog.name, group, attempt, e);
+                        return false;
+                    }
+                    Thread.sleep(200L << attempt);
+                }
+            }
+        }
+
+        private List<Object> events(List<Record> batch) {
+            List<Object> events = new ArrayList<>(batch.size());
+            for (Record record : batch)
+                events.add(record.event());
+            return events;
+        }
+
+        private void commit(long offset) {
+            committed = offset;
+            if (offsetChannel == null)
+                return;
+            try {
+                offsetChannel.write(ByteBuffer.allocate(8).putLong(0, offset), 0);
+                if (fsyncAlways)
+                    offsetChannel.force(false);
+            } catch (IOException e) {
+                log.warn("Failed to persist offset {} for {}/{}", offset, topicLog.name, group, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.groceryscout.backend.repository;
+
+import com.groceryscout.backend.entity.AuditLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * Inserts all entries with multi-row INSERT statements, bypassing the
+     * per-entity IDENTITY round trip.
+     *
+     * @return number of rows inserted
+     */
+    int insertAll(List<AuditLog> entries);
+
+    /**
+     * Newest-first page of entries in [from, to), optionally for one event
+     * type, starting strictly after the (createdAt, id) keyset cursor when
+     * given.
+     */
+    List<AuditLog> findPage(String eventType, LocalDateTime from, LocalDateTime to,
+            LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
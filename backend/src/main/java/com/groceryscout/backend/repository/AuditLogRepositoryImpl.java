@@ -0,0 +1,70 @@
+package com.groceryscout.backend.repository;
+
+import com.groceryscout.backend.entity.AuditLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+    // Keeps each statement well under the driver's 65535 bind-parameter limit
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertAll(List<AuditLog> entries) {
+        int inserted = 0;
+        for (int from = 0; from < entries.size(); from += ROWS_PER_STATEMENT) {
+            List<AuditLog> chunk = entries.subList(from, Math.min(entries.size(), from + ROWS_PER_STATEMENT));
+            StringBuilder sql = new StringBuilder("INSERT INTO audit_log (event_type, payload, created_at) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            for (int i = 0; i < chunk.size(); i++) {
+                AuditLog entry = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+                args.add(entry.getEventType());
+                args.add(entry.getPayload());
+                args.add(Timestamp.valueOf(entry.getCreatedAt() != null ? entry.getCreatedAt() : LocalDateTime.now()));
+            }
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    @Override
+    public List<AuditLog> findPage(String eventType, LocalDateTime from, LocalDateTime to,
+            LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        // Bounded created_at range lets the planner prune to the matching partitions
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, event_type, payload, created_at FROM audit_log WHERE created_at >= ? AND created_at < ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        if (eventType != null) {
+            sql.append(" AND event_type = ?");
+            args.add(eventType);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            sql.append(" AND (created_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(afterCreatedAt));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            AuditLog entry = new AuditLog();
+            entry.setId(rs.getLong("id"));
+            entry.setEventType(rs.getString("event_type"));
+            entry.setPayload(rs.getString("payload"));
+            entry.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            return entry;
+        }, args.toArray());
+    }
+}
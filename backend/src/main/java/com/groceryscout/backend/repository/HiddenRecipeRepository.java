@@ -2,6 +2,7 @@ package com.groceryscout.backend.repository;
 
 import com.groceryscout.backend.entity.HiddenRecipe;
 import org.springframework.data.jpa.repository.JpaRepository;
+
 import java.util.List;
 
 public interface HiddenRecipeRepository extends JpaRepository<HiddenRecipe, Long> {
@@ -0,0 +1,36 @@
+package com.groceryscout.backend.repository;
+
+import com.groceryscout.backend.entity.IngredientAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IngredientAliasRepository extends JpaRepository<IngredientAlias, Long> {
+
+    // (alias, productId) pairs for building the in-memory alias map
+    @Query("SELECT a.alias, a.product.id FROM IngredientAlias a")
+    List<Object[]> findAllAliasProductPairs();
+
+    Optional<IngredientAlias> findByAlias(String alias);
+
+    boolean existsByAlias(String alias);
+
+    List<IngredientAlias> findAllByOrderByAliasAsc();
+
+    // Learned (non-manual) rows only; manager edits survive catalog changes
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IngredientAlias a WHERE a.manual = false AND a.product.id = :productId")
+    int deleteLearnedByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IngredientAlias a WHERE a.manual = false AND a.alias IN :aliases")
+    int deleteLearnedByAliasIn(@Param("aliases") Collection<String> aliases);
+}
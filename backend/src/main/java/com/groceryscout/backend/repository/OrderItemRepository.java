@@ -2,6 +2,37 @@ package com.groceryscout.backend.repository;
 
 import com.groceryscout.backend.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    @Query(value = "SELECT MIN(order_id), MAX(order_id) FROM order_items", nativeQuery = true)
+    List<Object[]> findOrderIdRange();
+
+    // Same range plus the snapshot it was read in; lower ids can only still
+    // appear from transactions that snapshot lists as in progress
+    @Query(value = "SELECT MIN(order_id), MAX(order_id), CAST(pg_current_snapshot() AS text) FROM order_items",
+            nativeQuery = true)
+    List<Object[]> findOrderIdRangeWithSnapshot();
+
+    // Transactions of the given snapshot that have not committed or aborted yet
+    @Query(value = "SELECT COUNT(*) FROM pg_snapshot_xip(CAST(:snapshot AS pg_snapshot)) xid " +
+            "WHERE pg_xact_status(xid) = 'in progress'", nativeQuery = true)
+    long countInProgress(@Param("snapshot") String snapshot);
+
+    // Trending score = number of order lines per product, as counted by the
+    // 'orders.created' consumer; aggregated per order-id chunk for rebuilds
+    @Query(value = "SELECT product_id, COUNT(*) FROM order_items " +
+            "WHERE order_id >= :fromOrderId AND order_id < :toOrderId GROUP BY product_id", nativeQuery = true)
+    List<Object[]> countLinesPerProduct(@Param("fromOrderId") long fromOrderId, @Param("toOrderId") long toOrderId);
+
+    // Order lines whose deduction unit never reached the processed-events ledger
+    @Query(value = "SELECT oi.order_id, oi.product_id, oi.quantity FROM order_items oi " +
+            "LEFT JOIN processed_events pe ON pe.event_key = CONCAT(oi.order_id, ':', oi.product_id) " +
+            "WHERE oi.order_id >= :fromOrderId AND oi.order_id < :toOrderId AND pe.id IS NULL", nativeQuery = true)
+    List<Object[]> findUnappliedDeductions(@Param("fromOrderId") long fromOrderId,
+            @Param("toOrderId") long toOrderId);
 }
@@ -6,7 +6,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
@@ -17,12 +24,33 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Page<Order> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
-    @Query(value = "SELECT DATE(created_at) as day, SUM(total_price) as revenue " +
-            "FROM orders GROUP BY DATE(created_at) ORDER BY day DESC", nativeQuery = true)
-    List<Object[]> getRevenuePerDay();
+    // Range scans served by idx_orders_created_at_status; used until revenue
+    // buckets have been backfilled
+    @Query(value = "SELECT date_trunc(:unit, created_at) AS period, COUNT(*), SUM(total_price) " +
+            "FROM orders WHERE created_at >= :from AND created_at < :to " +
+            "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> aggregateRevenue(@Param("unit") String unit, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query(value = "SELECT date_trunc(:unit, created_at) AS period, COUNT(*), SUM(total_price) " +
+            "FROM orders WHERE created_at >= :from AND created_at < :to AND status = :status " +
+            "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> aggregateRevenueByStatus(@Param("unit") String unit, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("status") String status);
 
     @Query("SELECT COALESCE(SUM(o.totalPrice), 0) FROM Order o WHERE o.status = com.groceryscout.backend.entity.OrderStatus.DELIVERED")
     java.math.BigDecimal sumTotalRevenue();
 
     long countByStatus(OrderStatus status);
+
+    // Flat order lines for finance export; must be consumed inside a read-only
+    // transaction so the driver can use a server-side cursor.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query(value = "SELECT o.id, o.created_at, o.status, o.user_id, o.total_price, o.delivery_address, " +
+            "oi.product_id, p.name, oi.quantity, oi.price_at_purchase " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.created_at >= :from AND o.created_at < :to ORDER BY o.id, oi.id", nativeQuery = true)
+    Stream<Object[]> streamOrderLines(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
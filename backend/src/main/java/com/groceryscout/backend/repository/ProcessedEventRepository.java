@@ -0,0 +1,32 @@
+package com.groceryscout.backend.repository;
+
+import com.groceryscout.backend.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long> {
+
+    boolean existsByEventKey(String eventKey);
+
+    // Check-and-mark in one statement; returns 0 if the key was already recorded
+    @Modifying
+    @Query(value = "INSERT INTO processed_events (event_key, order_id, processed_at) " +
+            "VALUES (:eventKey, :orderId, :processedAt) ON CONFLICT (event_key) DO NOTHING", nativeQuery = true)
+    int markProcessed(@Param("eventKey") String eventKey, @Param("orderId") Long orderId,
+            @Param("processedAt") LocalDateTime processedAt);
+
+    @Query("SELECT p.eventKey FROM ProcessedEvent p WHERE p.processedAt >= :since")
+    Stream<String> streamKeysSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MIN(p.orderId) FROM ProcessedEvent p")
+    Long findOldestOrderId();
+
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent p WHERE p.processedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
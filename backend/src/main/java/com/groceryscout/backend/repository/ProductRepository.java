@@ -15,4 +15,12 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.isActive = true")
     List<String> findDistinctCategories();
+
+    // (id, lowStockThreshold, inventoryCount) for warming in-memory stock state
+    @Query("SELECT p.id, p.lowStockThreshold, p.inventoryCount FROM Product p")
+    List<Object[]> findStockLevels();
+
+    // (id, name) of active products for building the in-memory ingredient index
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.isActive = true")
+    List<Object[]> findActiveIdAndName();
 }
@@ -1,11 +1,17 @@
 package com.groceryscout.backend.repository;
 
+import com.groceryscout.backend.dto.RecipeSummary;
 import com.groceryscout.backend.entity.Recipe;
 import com.groceryscout.backend.entity.Role;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByCreatorId(Long creatorId);
@@ -13,7 +19,41 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     // For fuzzy matching existing recipes
     List<Recipe> findByTitleContainingIgnoreCase(String title);
 
-    // Find all recipes created by users with a specific role (e.g., MANAGER)
-    @Query("SELECT r FROM Recipe r WHERE r.creator.role = :role")
-    List<Recipe> findByCreatorRole(@Param("role") Role role);
+    // Newest [id, title] rows for the servings whose title contains the token, without loading recipes
+    @Query("SELECT r.id, r.title FROM Recipe r WHERE r.servings = :servings "
+            + "AND LOWER(r.title) LIKE CONCAT('%', LOWER(:token), '%') ORDER BY r.id DESC")
+    List<Object[]> findTitleCandidates(@Param("token") String token, @Param("servings") Integer servings,
+            Pageable pageable);
+
+    // All recipes created by users with a specific role (e.g., MANAGER), with
+    // creator, ingredients and linked products in one query
+    @Query("SELECT DISTINCT r FROM Recipe r JOIN FETCH r.creator c LEFT JOIN FETCH r.ingredients i "
+            + "LEFT JOIN FETCH i.linkedProduct WHERE c.role = :role")
+    List<Recipe> findWithIngredientsByCreatorRole(@Param("role") Role role);
+
+    // Recipes with their ingredients and linked products in one query
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients i LEFT JOIN FETCH i.linkedProduct "
+            + "WHERE r.id IN :ids")
+    List<Recipe> findWithIngredientsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Own or manager recipes the user has not hidden, newest first, below the keyset cursor
+    @Query("SELECT r.id FROM Recipe r WHERE (r.creator.id = :userId OR r.creator.role = :role) "
+            + "AND r.id < :beforeId "
+            + "AND NOT EXISTS (SELECT h.id FROM HiddenRecipe h WHERE h.user.id = :userId AND h.recipe.id = r.id) "
+            + "ORDER BY r.id DESC")
+    List<Long> findVisibleIds(@Param("userId") Long userId, @Param("role") Role role,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Feed cards, newest first; the count subquery only runs for the rows on the page
+    @Query("SELECT new com.groceryscout.backend.dto.RecipeSummary(r.id, r.title, r.prepTime, r.difficulty, "
+            + "r.servings, r.imageUrl, (SELECT COUNT(i.id) FROM Ingredient i WHERE i.recipe = r)) "
+            + "FROM Recipe r ORDER BY r.id DESC")
+    Slice<RecipeSummary> findSummaries(Pageable pageable);
+
+    @Query("SELECT r.id FROM Recipe r ORDER BY r.id DESC")
+    List<Long> findLatestIds(Pageable pageable);
+
+    // Recipe with ingredients and linked products in one query
+    @EntityGraph(attributePaths = { "ingredients", "ingredients.linkedProduct" })
+    Optional<Recipe> findDetailedById(Long id);
 }
@@ -0,0 +1,36 @@
+package com.groceryscout.backend.repository;
+
+import com.groceryscout.backend.entity.RevenueBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevenueBucketRepository extends JpaRepository<RevenueBucket, Long> {
+
+    // Atomic increment of one (hour, status) bucket; deltas may be negative
+    @Modifying
+    @Query(value = "INSERT INTO revenue_buckets (bucket_start, status, order_count, revenue) " +
+            "VALUES (date_trunc('hour', CAST(:createdAt AS timestamp)), :status, :countDelta, :revenueDelta) " +
+            "ON CONFLICT (bucket_start, status) DO UPDATE SET " +
+            "order_count = revenue_buckets.order_count + EXCLUDED.order_count, " +
+            "revenue = revenue_buckets.revenue + EXCLUDED.revenue", nativeQuery = true)
+    void addToBucket(@Param("createdAt") LocalDateTime createdAt, @Param("status") String status,
+            @Param("countDelta") long countDelta, @Param("revenueDelta") BigDecimal revenueDelta);
+
+    @Query(value = "SELECT date_trunc(:unit, bucket_start) AS period, SUM(order_count), SUM(revenue) " +
+            "FROM revenue_buckets WHERE bucket_start >= :from AND bucket_start < :to " +
+            "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> aggregate(@Param("unit") String unit, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query(value = "SELECT date_trunc(:unit, bucket_start) AS period, SUM(order_count), SUM(revenue) " +
+            "FROM revenue_buckets WHERE bucket_start >= :from AND bucket_start < :to AND status = :status " +
+            "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> aggregateByStatus(@Param("unit") String unit, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("status") String status);
+}
@@ -0,0 +1,55 @@
+package com.groceryscout.backend.repository;
+
+import com.groceryscout.backend.entity.StockAlertState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockAlertStateRepository extends JpaRepository<StockAlertState, Long> {
+
+    // Records the current low/ok state of products that have none yet, without alerting
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stock_alert_state (product_id, alerted_low) " +
+            "SELECT p.id, p.inventory_count <= COALESCE(p.low_stock_threshold, :defaultThreshold) " +
+            "FROM products p WHERE p.inventory_count IS NOT NULL " +
+            "ON CONFLICT (product_id) DO NOTHING", nativeQuery = true)
+    int seedMissing(@Param("defaultThreshold") int defaultThreshold);
+
+    /*
+     * Claims the right to send a low (or back-in-stock) alert in one
+     * statement. Succeeds only if the product's current stock is on that side
+     * of its threshold, the last alerted state differs, and the last alert of
+     * that kind is older than the cooldown cutoff; returns 0 otherwise.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stock_alert_state (product_id, alerted_low, last_low_alert_at, last_restock_alert_at) " +
+            "SELECT p.id, CAST(:low AS boolean), " +
+            "CASE WHEN CAST(:low AS boolean) THEN CAST(:now AS timestamp) END, " +
+            "CASE WHEN CAST(:low AS boolean) THEN NULL ELSE CAST(:now AS timestamp) END " +
+            "FROM products p WHERE p.id = :productId AND p.inventory_count IS NOT NULL " +
+            "AND (p.inventory_count <= COALESCE(p.low_stock_threshold, :defaultThreshold)) = CAST(:low AS boolean) " +
+            "ON CONFLICT (product_id) DO UPDATE SET alerted_low = EXCLUDED.alerted_low, " +
+            "last_low_alert_at = COALESCE(EXCLUDED.last_low_alert_at, stock_alert_state.last_low_alert_at), " +
+            "last_restock_alert_at = COALESCE(EXCLUDED.last_restock_alert_at, stock_alert_state.last_restock_alert_at) " +
+            "WHERE stock_alert_state.alerted_low <> EXCLUDED.alerted_low " +
+            "AND COALESCE(CASE WHEN EXCLUDED.alerted_low THEN stock_alert_state.last_low_alert_at " +
+            "ELSE stock_alert_state.last_restock_alert_at END, '-infinity') < :cutoff", nativeQuery = true)
+    int claimAlert(@Param("productId") Long productId, @Param("low") boolean low,
+            @Param("defaultThreshold") int defaultThreshold, @Param("now") LocalDateTime now,
+            @Param("cutoff") LocalDateTime cutoff);
+
+    // (productId, name, inventoryCount, threshold) of products whose stock no longer matches the alerted state
+    @Query(value = "SELECT p.id, p.name, p.inventory_count, COALESCE(p.low_stock_threshold, :defaultThreshold) " +
+            "FROM stock_alert_state s JOIN products p ON p.id = s.product_id " +
+            "WHERE p.inventory_count IS NOT NULL " +
+            "AND s.alerted_low <> (p.inventory_count <= COALESCE(p.low_stock_threshold, :defaultThreshold))",
+            nativeQuery = true)
+    List<Object[]> findUnalerted(@Param("defaultThreshold") int defaultThreshold);
+}
@@ -0,0 +1,19 @@
+package com.groceryscout.backend.repository;
+
+import com.groceryscout.backend.entity.StockSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface StockSubscriptionRepository extends JpaRepository<StockSubscription, Long> {
+
+    // Recipients of a back-in-stock alert
+    @Query("SELECT s.user.id FROM StockSubscription s WHERE s.product.id = :productId")
+    List<Long> findUserIdsByProductId(@Param("productId") Long productId);
+
+    boolean existsByUserIdAndProductId(Long userId, Long productId);
+
+    void deleteByUserIdAndProductId(Long userId, Long productId);
+}
@@ -0,0 +1,267 @@
+package com.groceryscout.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps 'audit_log' range-partitioned by day on created_at.
+ *
+ * On first start against an unpartitioned table, the table is renamed to
+ * 'audit_log_legacy' and a partitioned replacement is created; once the
+ * application is ready, rows inside the retention window are copied over in
+ * batches on a background thread (resumed after a restart, and marked done
+ * with a table comment). Afterwards a daily job creates partitions a few
+ * days ahead and drops whole partitions older than the retention, so storage
+ * stays bounded without DELETE churn.
+ *
+ * Rows for a day without a partition land in 'audit_log_default'. Postgres
+ * refuses to attach a partition whose range has rows in the default, so
+ * partitions are created detached, the day's rows are moved into them and
+ * only then attached. The daily job does this for every day found in the
+ * default partition and deletes what is past retention there.
+ */
+@Service
+public class AuditLogPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogPartitionService.class);
+    private static final String PARTITION_PREFIX = "audit_log_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String COPIED_MARKER = "copied into partitioned audit_log";
+
+    @Value("${app.audit-log.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.audit-log.premake-days:7}")
+    private int premakeDays;
+
+    @Value("${app.audit-log.copy-batch-size:5000}")
+    private int copyBatchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService copier = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "audit-log-copy");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public AuditLogPartitionService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> migrateIfNeeded());
+            maintainPartitions();
+        } catch (DataAccessException e) {
+            log.error("Audit log partitioning unavailable; audit rows stay in the existing table", e);
+            return;
+        }
+        if (legacyCopyPending()) {
+            copier.execute(this::copyLegacyRows);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        copier.shutdownNow();
+    }
+
+    /**
+     * Creates upcoming partitions, moves days stranded in the default
+     * partition into their own and drops the ones past retention.
+     */
+    @Scheduled(cron = "${app.audit-log.maintenance-cron:0 5 0 * * *}")
+    public void maintainPartitions() {
+        if (!"p".equals(relkind("audit_log")))
+            return;
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusDays(retentionDays);
+        for (LocalDate day = today; !day.isAfter(today.plusDays(premakeDays)); day = day.plusDays(1)) {
+            ensurePartition(day);
+        }
+        List<LocalDate> stranded = jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(created_at AS DATE) FROM audit_log_default WHERE created_at >= ?",
+                LocalDate.class, cutoff.atStartOfDay());
+        stranded.forEach(this::ensurePartition);
+        int expired = jdbcTemplate.update("DELETE FROM audit_log_default WHERE created_at < ?", cutoff.atStartOfDay());
+        if (!stranded.isEmpty() || expired > 0) {
+            log.info("Moved {} days out of audit_log_default and deleted {} expired rows from it", stranded.size(),
+                    expired);
+        }
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = 'audit_log' AND c.relname LIKE 'audit\\_log\\_p%'",
+                String.class);
+        int dropped = 0;
+        for (String name : partitions) {
+            LocalDate day = LocalDate.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX);
+            if (day.isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} audit_log partitions older than {}", dropped, cutoff);
+        }
+    }
+
+    private void migrateIfNeeded() {
+        // Serialize nodes starting at the same time; released at commit
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('audit_log_partitioning'))");
+        String kind = relkind("audit_log");
+        if ("p".equals(kind))
+            return;
+
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusDays(retentionDays);
+        if ("r".equals(kind)) {
+            log.info("Converting audit_log to daily partitions (retention {} days)", retentionDays);
+            jdbcTemplate.execute("ALTER TABLE audit_log RENAME TO audit_log_legacy");
+            // Index names are schema-wide; free them up for the new table
+            for (String index : jdbcTemplate.queryForList(
+                    "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() "
+                            + "AND tablename = 'audit_log_legacy'",
+                    String.class)) {
+                jdbcTemplate.execute("ALTER INDEX \"" + index + "\" RENAME TO \"" + legacyName(index) + "\"");
+            }
+        }
+
+        jdbcTemplate.execute("CREATE TABLE audit_log ("
+                + "id BIGSERIAL, "
+                + "event_type VARCHAR(255) NOT NULL, "
+                + "payload TEXT, "
+                + "created_at TIMESTAMP(6) NOT NULL, "
+                + "PRIMARY KEY (id, created_at)"
+                + ") PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_audit_log_event_type_created_at "
+                + "ON audit_log (event_type, created_at, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_audit_log_created_at ON audit_log (created_at, id)");
+        // Safety net for rows outside the pre-created range (e.g. clock skew)
+        jdbcTemplate.execute("CREATE TABLE audit_log_default PARTITION OF audit_log DEFAULT");
+
+        if ("r".equals(kind)) {
+            LocalDate oldest = jdbcTemplate.queryForObject(
+                    "SELECT CAST(MIN(created_at) AS DATE) FROM audit_log_legacy WHERE created_at >= ?",
+                    LocalDate.class, cutoff.atStartOfDay());
+            for (LocalDate day = oldest != null ? oldest : today; day.isBefore(today); day = day.plusDays(1)) {
+                createPartition(day);
+            }
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('audit_log', 'id'), "
+                    + "GREATEST((SELECT COALESCE(MAX(id), 0) FROM audit_log_legacy), 1))");
+        }
+    }
+
+    private boolean legacyCopyPending() {
+        if (!"r".equals(relkind("audit_log_legacy")))
+            return false;
+        String comment = jdbcTemplate.queryForObject(
+                "SELECT obj_description(CAST('audit_log_legacy' AS regclass), 'pg_class')", String.class);
+        return !COPIED_MARKER.equals(comment);
+    }
+
+    /**
+     * Copies legacy rows inside the retention window in id order, one short
+     * transaction per batch. Already copied rows are skipped, so an
+     * interrupted copy simply starts over after a restart.
+     */
+    private void copyLegacyRows() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        long lastId = 0;
+        long copied = 0;
+        log.info("Copying audit_log_legacy rows since {} into the partitioned audit_log", cutoff);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long after = lastId;
+                Long[] batch = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                        "WITH batch AS (SELECT id, event_type, payload, created_at FROM audit_log_legacy "
+                                + "WHERE id > ? AND created_at >= ? ORDER BY id LIMIT ?), "
+                                + "copied AS (INSERT INTO audit_log (id, event_type, payload, created_at) "
+                                + "SELECT id, event_type, payload, created_at FROM batch ON CONFLICT DO NOTHING) "
+                                + "SELECT MAX(id), COUNT(*) FROM batch",
+                        (rs, rowNum) -> new Long[] { rs.getObject(1, Long.class), rs.getLong(2) },
+                        after, cutoff, copyBatchSize));
+                if (batch == null || batch[0] == null) {
+                    jdbcTemplate.execute("COMMENT ON TABLE audit_log_legacy IS '" + COPIED_MARKER + "'");
+                    log.info("Copied {} audit rows into the partitioned audit_log; audit_log_legacy can be dropped "
+                            + "once verified", copied);
+                    return;
+                }
+                lastId = batch[0];
+                copied += batch[1];
+            }
+        } catch (DataAccessException e) {
+            log.error("Copying audit_log_legacy stopped after {} rows; it resumes on the next start", copied, e);
+        }
+    }
+
+    /**
+     * Creates the day's partition if it does not exist yet, moving any rows
+     * for that day out of the default partition first.
+     */
+    private void ensurePartition(LocalDate day) {
+        String name = PARTITION_PREFIX + day.format(SUFFIX);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (relkind(name) != null)
+                    return;
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE audit_log INCLUDING DEFAULTS)");
+                int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM audit_log_default "
+                        + "WHERE created_at >= ? AND created_at < ? RETURNING id, event_type, payload, created_at) "
+                        + "INSERT INTO " + name + " (id, event_type, payload, created_at) "
+                        + "SELECT id, event_type, payload, created_at FROM moved",
+                        day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                jdbcTemplate.execute("ALTER TABLE audit_log ATTACH PARTITION " + name
+                        + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+                if (moved > 0) {
+                    log.info("Moved {} rows from audit_log_default into new partition {}", moved, name);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not create audit_log partition {}: {}", name, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Attaches an empty day partition; only used while the default partition
+     * is still empty during migration.
+     */
+    private void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + day.format(SUFFIX)
+                + " PARTITION OF audit_log FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+    }
+
+    private String relkind(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT CAST(relkind AS VARCHAR) FROM pg_class "
+                        + "WHERE relname = ? AND relnamespace = "
+                        + "(SELECT oid FROM pg_namespace WHERE nspname = current_schema())",
+                String.class, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private static String legacyName(String index) {
+        String name = index.replace("audit_log", "audit_log_legacy");
+        return name.equals(index) ? index + "_legacy" : name;
+    }
+}
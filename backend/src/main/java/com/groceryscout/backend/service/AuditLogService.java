@@ -0,0 +1,111 @@
+package com.groceryscout.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryscout.backend.entity.AuditLog;
+import com.groceryscout.backend.repository.AuditLogRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes audit entries in bulk. One call per consumer poll keeps audit
+ * ingestion at one round trip per batch instead of one per message.
+ */
+@Service
+public class AuditLogService {
+
+    private static final int MAX_QUERY_DAYS = 366;
+
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+
+    public AuditLogService(AuditLogRepository auditLogRepository, ObjectMapper objectMapper) {
+        this.auditLogRepository = auditLogRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records domain events, storing each as its JSON form.
+     */
+    @Transactional
+    public int recordEvents(String eventType, List<?> events) {
+        List<String> payloads = new ArrayList<>(events.size());
+        for (Object event : events) {
+            payloads.add(toPayload(event));
+        }
+        return recordAll(eventType, payloads);
+    }
+
+    @Transactional
+    public int recordAll(String eventType, List<String> payloads) {
+        if (payloads.isEmpty())
+            return 0;
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditLog> entries = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            AuditLog entry = new AuditLog();
+            entry.setEventType(eventType);
+            entry.setPayload(payload);
+            entry.setCreatedAt(now);
+            entries.add(entry);
+        }
+        return auditLogRepository.insertAll(entries);
+    }
+
+    /**
+     * Keyset-paginated read over the audit log, newest first.
+     *
+     * @param cursor opaque value returned as 'nextCursor' by the previous page
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> query(String eventType, LocalDateTime from, LocalDateTime to, String cursor,
+            int limit) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+        if (Duration.between(from, to).toDays() > MAX_QUERY_DAYS) {
+            throw new IllegalArgumentException("Time range must not exceed " + MAX_QUERY_DAYS + " days");
+        }
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|", 2);
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        List<AuditLog> items = auditLogRepository.findPage(eventType, from, to, afterCreatedAt, afterId, limit);
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        if (items.size() == limit) {
+            AuditLog last = items.get(items.size() - 1);
+            page.put("nextCursor", Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8)));
+        }
+        return page;
+    }
+
+    private String toPayload(Object value) {
+        if (value == null || value instanceof String)
+            return (String) value;
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return value.toString();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.groceryscout.backend.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory "frequently bought together" counts.
+ *
+ * Each product keeps a fixed-size row of co-purchased product IDs and counts
+ * stored in parallel primitive arrays. When a row is full the least frequent
+ * entry is replaced (Space-Saving), so memory per product is bounded no matter
+ * how many distinct pairs are seen. Rows are found through an open-addressing
+ * table keyed by primitive product IDs.
+ *
+ * Baskets are recorded together with their source position (topic-partition
+ * and offset) so a snapshot captures exactly the events it contains: after a
+ * restore, consumption resumes from {@link #positions()} and replays below a
+ * source's position are ignored.
+ */
+public class CoPurchaseIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x47534350; // "GSCP"
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final int rowCapacity;
+    private final int maxBasketSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Long> positions = new HashMap<>();
+    private long[] tableKeys = new long[64];
+    private Row[] tableRows = new Row[64];
+    private int rowCount;
+
+    public CoPurchaseIndex(int rowCapacity, int maxBasketSize) {
+        this.rowCapacity = rowCapacity;
+        this.maxBasketSize = maxBasketSize;
+    }
+
+    /**
+     * Counts every distinct pair of products in one basket.
+     * Duplicate IDs are ignored and oversized baskets are truncated to keep the
+     * pair loop bounded.
+     */
+    public void recordBasket(long[] productIds) {
+        lock.writeLock().lock();
+        try {
+            apply(productIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Like {@link #recordBasket(long[])}, for the event at {@code offset} of
+     * {@code source}. Events below the source's recorded position were already
+     * counted and are skipped.
+     *
+     * @return false if the event was skipped
+     */
+    public boolean recordBasket(long[] productIds, String source, long offset) {
+        lock.writeLock().lock();
+        try {
+            Long position = positions.get(source);
+            if (position != null && offset < position)
+                return false;
+            apply(productIds);
+            positions.put(source, offset + 1);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} product IDs most often bought with the given
+     * product, highest count first.
+     */
+    public long[] topRelated(long productId, int limit) {
+        if (limit <= 0)
+            return new long[0];
+        long[] keys;
+        int[] counts;
+        lock.readLock().lock();
+        try {
+            Row row = find(productId);
+            if (row == null)
+                return new long[0];
+            keys = Arrays.copyOf(row.keys, row.size);
+            counts = Arrays.copyOf(row.counts, row.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(counts[b], counts[a]));
+
+        long[] result = new long[Math.min(limit, keys.length)];
+        for (int i = 0; i < result.length; i++)
+            result[i] = keys[order[i]];
+        return result;
+    }
+
+    public int productCount() {
+        lock.readLock().lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Next offset to consume per source, as of the last recorded basket.
+     */
+    public Map<String, Long> positions() {
+        lock.readLock().lock();
+        try {
+            return Map.copyOf(positions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the counts and source positions as one consistent cut; recording
+     * is blocked while it runs, so callers should write to a memory buffer.
+     */
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(positions.size());
+            for (Map.Entry<String, Long> position : positions.entrySet()) {
+                out.writeUTF(position.getKey());
+                out.writeLong(position.getValue());
+            }
+            out.writeInt(rowCount);
+            for (int slot = 0; slot < tableRows.length; slot++) {
+                Row row = tableRows[slot];
+                if (row == null)
+                    continue;
+                out.writeLong(tableKeys[slot]);
+                out.writeInt(row.size);
+                for (int i = 0; i < row.size; i++) {
+                    out.writeLong(row.keys[i]);
+                    out.writeInt(row.counts[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents with a snapshot. Version 1 snapshots carry no
+     * positions, so every source is consumed from its committed offset.
+     */
+    public void readSnapshot(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Unrecognized co-purchase snapshot format");
+        }
+        int version = in.readInt();
+        if (version < 1 || version > SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported co-purchase snapshot version " + version);
+        }
+        lock.writeLock().lock();
+        try {
+            positions.clear();
+            tableKeys = new long[64];
+            tableRows = new Row[64];
+            rowCount = 0;
+            if (version >= 2) {
+                int positionCount = in.readInt();
+                for (int p = 0; p < positionCount; p++) {
+                    positions.put(in.readUTF(), in.readLong());
+                }
+            }
+            int rows = in.readInt();
+            for (int r = 0; r < rows; r++) {
+                Row row = rowFor(in.readLong());
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    long key = in.readLong();
+                    int count = in.readInt();
+                    if (i < rowCapacity) {
+                        row.keys[i] = key;
+                        row.counts[i] = count;
+                        row.size++;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Caller holds the write lock.
+     */
+    private void apply(long[] productIds) {
+        long[] distinct = Arrays.stream(productIds).distinct().limit(maxBasketSize).toArray();
+        if (distinct.length < 2)
+            return;
+        for (long productId : distinct) {
+            Row row = rowFor(productId);
+            for (long other : distinct) {
+                if (other != productId) {
+                    row.increment(other);
+                }
+            }
+        }
+    }
+
+    private Row find(long productId) {
+        int mask = tableRows.length - 1;
+        for (int slot = slot(productId, mask);; slot = (slot + 1) & mask) {
+            Row row = tableRows[slot];
+            if (row == null || tableKeys[slot] == productId)
+                return row;
+        }
+    }
+
+    private Row rowFor(long productId) {
+        int mask = tableRows.length - 1;
+        int slot = slot(productId, mask);
+        while (tableRows[slot] != null) {
+            if (tableKeys[slot] == productId)
+                return tableRows[slot];
+            slot = (slot + 1) & mask;
+        }
+        Row row = new Row(rowCapacity);
+        tableKeys[slot] = productId;
+        tableRows[slot] = row;
+        if (++rowCount * 2 > tableRows.length)
+            grow();
+        return row;
+    }
+
+    private void grow() {
+        long[] oldKeys = tableKeys;
+        Row[] oldRows = tableRows;
+        tableKeys = new long[oldKeys.length * 2];
+        tableRows = new Row[oldRows.length * 2];
+        int mask = tableRows.length - 1;
+        for (int i = 0; i < oldRows.length; i++) {
+            if (oldRows[i] == null)
+                continue;
+            int slot = slot(oldKeys[i], mask);
+            while (tableRows[slot] != null)
+                slot = (slot + 1) & mask;
+            tableKeys[slot] = oldKeys[i];
+            tableRows[slot] = oldRows[i];
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Fixed-capacity counter row. Callers must hold the index lock.
+     */
+    private static final class Row {
+        final long[] keys;
+        final int[] counts;
+        int size;
+
+        Row(int capacity) {
+            this.keys = new long[capacity];
+            this.counts = new int[capacity];
+        }
+
+        void increment(long key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    counts[i]++;
+                    return;
+                }
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                counts[size] = 1;
+                size++;
+                return;
+            }
+            // Row full: evict the weakest pair, inheriting its count as the error bound
+            int min = 0;
+            for (int i = 1; i < size; i++) {
+                if (counts[i] < counts[min])
+                    min = i;
+            }
+            keys[min] = key;
+            counts[min]++;
+        }
+    }
+}
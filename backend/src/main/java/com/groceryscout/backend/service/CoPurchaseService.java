@@ -0,0 +1,152 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "Frequently bought together" recommendations.
+ * Baskets from 'orders.created' are folded into an in-memory
+ * {@link CoPurchaseIndex}, which is periodically snapshotted to disk and
+ * reloaded on startup. The snapshot records the offset it covers per source
+ * (Kafka partition or local log); consumers resume from {@link #position}
+ * so restored counts are neither applied twice nor missing events.
+ */
+@Service
+public class CoPurchaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(CoPurchaseService.class);
+    public static final String LOCAL_SOURCE = "local:orders.created";
+
+    @Value("${app.recommendations.snapshot-path:data/co-purchase.snapshot}")
+    private String snapshotPath;
+
+    @Value("${app.recommendations.max-related-per-product:32}")
+    private int maxRelatedPerProduct;
+
+    @Value("${app.recommendations.max-basket-size:50}")
+    private int maxBasketSize;
+
+    private final ProductRepository productRepository;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private CoPurchaseIndex index;
+
+    public CoPurchaseService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        index = new CoPurchaseIndex(maxRelatedPerProduct, maxBasketSize);
+        Path path = Path.of(snapshotPath);
+        if (!Files.exists(path)) {
+            log.info("No co-purchase snapshot at {}, starting empty", path);
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            index.readSnapshot(in);
+            log.info("Loaded co-purchase snapshot with {} products from {}", index.productCount(), path);
+        } catch (IOException e) {
+            log.warn("Could not read co-purchase snapshot {}, starting empty", path, e);
+            index = new CoPurchaseIndex(maxRelatedPerProduct, maxBasketSize);
+        }
+    }
+
+    /**
+     * Folds one order's basket into the pair counts.
+     *
+     * @param source topic-partition (or local log) the event was read from
+     * @param offset the event's offset in {@code source}
+     */
+    public void recordOrder(OrderEvent event, String source, long offset) {
+        long[] productIds = event.getItems() == null ? new long[0] : event.getItems().stream()
+                .map(OrderEvent.OrderItemDto::getProductId)
+                .filter(id -> id != null)
+                .mapToLong(Long::longValue)
+                .toArray();
+        if (index.recordBasket(productIds, source, offset)) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Offset to resume {@code source} from so that consumption continues
+     * where the restored snapshot ends, or null if the snapshot has none.
+     */
+    public Long position(String source) {
+        return index.positions().get(source);
+    }
+
+    public static String kafkaSource(String topic, int partition) {
+        return topic + "-" + partition;
+    }
+
+    /**
+     * Products most often bought together with the given one, in descending
+     * order of co-purchase count.
+     */
+    public List<Product> getRelatedProducts(Long productId, int limit) {
+        long[] relatedIds = index.topRelated(productId, limit);
+        if (relatedIds.length == 0) {
+            return Collections.emptyList();
+        }
+
+        List<Long> ids = new ArrayList<>(relatedIds.length);
+        for (long id : relatedIds)
+            ids.add(id);
+
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(p -> p != null && Boolean.TRUE.equals(p.getIsActive()))
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!dirty.getAndSet(false))
+            return;
+        Path path = Path.of(snapshotPath);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // Serialize in memory first: recording is blocked while the index is copied
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                index.writeSnapshot(out);
+            }
+            Path tmp = Files.createTempFile(parent, "co-purchase", ".tmp");
+            Files.write(tmp, buffer.toByteArray());
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote co-purchase snapshot ({} products) to {}", index.productCount(), path);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Failed to write co-purchase snapshot to {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    void flush() {
+        snapshot();
+    }
+}
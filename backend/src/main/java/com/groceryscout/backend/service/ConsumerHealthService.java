@@ -0,0 +1,176 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.config.ListenerMetricsInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarizes the health of every Kafka listener container from the
+ * listener metrics (see ListenerMetricsInterceptor) and the consumer client
+ * lag gauges.
+ *
+ * Throughput is the record rate over the last sampling window. A container
+ * is DOWN when it is stopped, PAUSED when paused, and LAGGING when its total
+ * lag exceeds the configured threshold.
+ */
+@Service
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = false)
+public class ConsumerHealthService {
+
+    private static final String LAG_GAUGE = "kafka.consumer.fetch.manager.records.lag";
+
+    @Value("${app.kafka.health.lag-threshold:1000}")
+    private long lagThreshold;
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, double[]> lastCounts = new ConcurrentHashMap<>();
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+
+    public ConsumerHealthService(KafkaListenerEndpointRegistry listenerRegistry, MeterRegistry meterRegistry) {
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Samples the record counters to derive per-listener records/s.
+     */
+    @Scheduled(fixedRateString = "${app.kafka.health.rate-window-ms:15000}")
+    public void sampleRates() {
+        long now = System.nanoTime();
+        for (Counter counter : meterRegistry.find(ListenerMetricsInterceptor.RECORDS).counters()) {
+            String key = key(counter.getId().getTag("group"), counter.getId().getTag("topic"));
+            double count = counter.count();
+            double[] previous = lastCounts.put(key, new double[] { count, now });
+            if (previous != null && now > previous[1]) {
+                rates.put(key, (count - previous[0]) / ((now - previous[1]) / 1e9));
+            }
+        }
+    }
+
+    public Map<String, Object> summarize() {
+        List<Map<String, Object>> listeners = new ArrayList<>();
+        String overall = "UP";
+        for (MessageListenerContainer container : listenerRegistry.getAllListenerContainers()) {
+            Map<String, Object> entry = describe(container);
+            listeners.add(entry);
+            overall = worst(overall, (String) entry.get("status"));
+        }
+        listeners.sort(Comparator.comparing(e -> String.valueOf(e.get("id"))));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("status", overall);
+        summary.put("lagThreshold", lagThreshold);
+        summary.put("listeners", listeners);
+        return summary;
+    }
+
+    private Map<String, Object> describe(MessageListenerContainer container) {
+        String group = container.getGroupId();
+        String[] configured = container.getContainerProperties().getTopics();
+        Set<String> topics = new TreeSet<>(configured != null ? Arrays.asList(configured) : List.of());
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        if (assigned != null) {
+            assigned.forEach(tp -> topics.add(tp.topic()));
+        }
+
+        List<Map<String, Object>> topicStats = new ArrayList<>();
+        long totalLag = 0;
+        for (String topic : topics) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("topic", topic);
+            Counter records = meterRegistry.find(ListenerMetricsInterceptor.RECORDS)
+                    .tag("group", group).tag("topic", topic).counter();
+            stats.put("records", records != null ? (long) records.count() : 0);
+            stats.put("recordsPerSecond", round(rates.getOrDefault(key(group, topic), 0.0)));
+            stats.put("errors", (long) meterRegistry.find(ListenerMetricsInterceptor.ERRORS)
+                    .tag("group", group).tag("topic", topic).counters().stream()
+                    .mapToDouble(Counter::count).sum());
+            Timer process = meterRegistry.find(ListenerMetricsInterceptor.PROCESS)
+                    .tag("group", group).tag("topic", topic).timer();
+            if (process != null && process.count() > 0) {
+                stats.put("processingMs", processing(process));
+            }
+            Map<Integer, Long> lag = lag(group, topic);
+            long topicLag = lag.values().stream().mapToLong(Long::longValue).sum();
+            totalLag += topicLag;
+            stats.put("lag", topicLag);
+            stats.put("lagByPartition", lag);
+            topicStats.add(stats);
+        }
+
+        String status;
+        if (!container.isRunning()) {
+            status = "DOWN";
+        } else if (container.isContainerPaused() || container.isPauseRequested()) {
+            status = "PAUSED";
+        } else if (totalLag > lagThreshold) {
+            status = "LAGGING";
+        } else {
+            status = "UP";
+        }
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", container.getListenerId());
+        entry.put("group", group);
+        entry.put("status", status);
+        entry.put("assignedPartitions", assigned != null ? assigned.size() : 0);
+        entry.put("lag", totalLag);
+        entry.put("topics", topicStats);
+        return entry;
+    }
+
+    private Map<String, Object> processing(Timer timer) {
+        Map<String, Object> ms = new LinkedHashMap<>();
+        ms.put("mean", round(timer.mean(TimeUnit.MILLISECONDS)));
+        ms.put("max", round(timer.max(TimeUnit.MILLISECONDS)));
+        for (ValueAtPercentile p : timer.takeSnapshot().percentileValues()) {
+            ms.put("p" + Math.round(p.percentile() * 100), round(p.value(TimeUnit.MILLISECONDS)));
+        }
+        return ms;
+    }
+
+    /**
+     * Lag per partition from the consumer client gauges. Client ids default
+     * to 'consumer-<group>-<n>', which ties a client to its container's group.
+     */
+    private Map<Integer, Long> lag(String group, String topic) {
+        String clientPrefix = "consumer-" + group + "-";
+        Map<Integer, Long> lag = new TreeMap<>();
+        for (Gauge gauge : meterRegistry.find(LAG_GAUGE).tag("topic", topic).gauges()) {
+            String clientId = gauge.getId().getTag("client.id");
+            String partition = gauge.getId().getTag("partition");
+            double value = gauge.value();
+            if (clientId == null || partition == null || !clientId.startsWith(clientPrefix) || Double.isNaN(value))
+                continue;
+            lag.merge(Integer.parseInt(partition), (long) value, Math::max);
+        }
+        return lag;
+    }
+
+    private static String worst(String a, String b) {
+        List<String> order = List.of("UP", "LAGGING", "PAUSED", "DOWN");
+        return order.indexOf(b) > order.indexOf(a) ? b : a;
+    }
+
+    private static String key(String group, String topic) {
+        return group + '|' + topic;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,159 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.dto.StockDeductionEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Inspection and bulk replay of inventory dead-letter topics.
+ *
+ * Inspection reads from the beginning with an unassigned consumer and never
+ * commits. Replay uses its own consumer group, so each parked record is
+ * replayed once: deduction units go back to 'inventory.deductions', while
+ * parked orders run through the same handler as 'orders.created' rather than
+ * being re-published there (which would be counted again by every other
+ * group). That handler counts the order towards trending unless the
+ * processed-events ledger shows it already was, then re-splits it into
+ * deduction units.
+ */
+@Service
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = false)
+public class DeadLetterService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterService.class);
+    private static final String ORDERS_DLT = "orders.created-dlt";
+    private static final String DEDUCTIONS_DLT = "inventory.deductions-dlt";
+    private static final Set<String> DLT_TOPICS = Set.of(ORDERS_DLT, DEDUCTIONS_DLT);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaEventService kafkaEventService;
+    private final InventoryService inventoryService;
+
+    public DeadLetterService(ConsumerFactory<String, Object> consumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate, KafkaEventService kafkaEventService,
+            InventoryService inventoryService) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaEventService = kafkaEventService;
+        this.inventoryService = inventoryService;
+    }
+
+    public Set<String> getTopics() {
+        return DLT_TOPICS;
+    }
+
+    /**
+     * Returns up to {@code limit} parked records from the start of the topic.
+     */
+    public List<Map<String, Object>> inspect(String topic, int limit) {
+        requireDltTopic(topic);
+        List<Map<String, Object>> result = new ArrayList<>();
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer("dlt-inspector", null)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                    .map(p -> new TopicPartition(topic, p.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            while (result.size() < limit) {
+                ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty())
+                    break;
+                for (ConsumerRecord<String, Object> record : records) {
+                    if (result.size() >= limit)
+                        break;
+                    result.add(describe(record));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replays up to {@code max} records not yet replayed and commits past them.
+     */
+    public int replay(String topic, int max) {
+        requireDltTopic(topic);
+        int replayed = 0;
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer("dlt-replay", null, null, overrides)) {
+            consumer.subscribe(List.of(topic));
+            while (replayed < max) {
+                ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty())
+                    break;
+                Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+                for (ConsumerRecord<String, Object> record : records) {
+                    if (replayed >= max)
+                        break;
+                    replayRecord(record);
+                    replayed++;
+                    commits.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+                kafkaTemplate.flush();
+                consumer.commitSync(commits);
+            }
+        }
+        log.info("Replayed {} records from {}", replayed, topic);
+        return replayed;
+    }
+
+    private void replayRecord(ConsumerRecord<String, Object> record) {
+        if (record.value() == null) {
+            // Undeserializable payload; nothing to replay
+            log.warn("Skipping empty record at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
+        if (record.value() instanceof OrderEvent event) {
+            inventoryService.onOrderCreated(event);
+        } else if (record.value() instanceof StockDeductionEvent event) {
+            kafkaEventService.sendStockDeductions(List.of(event));
+        } else {
+            log.warn("Skipping unexpected {} on {}", record.value().getClass().getSimpleName(), record.topic());
+        }
+    }
+
+    private Map<String, Object> describe(ConsumerRecord<String, Object> record) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("partition", record.partition());
+        entry.put("offset", record.offset());
+        entry.put("timestamp", record.timestamp());
+        entry.put("key", record.key());
+        entry.put("value", record.value());
+        entry.put("originalTopic", header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        entry.put("exceptionClass", header(record, KafkaHeaders.DLT_EXCEPTION_FQCN));
+        entry.put("exceptionMessage", header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        return entry;
+    }
+
+    private String header(ConsumerRecord<String, Object> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private void requireDltTopic(String topic) {
+        if (!DLT_TOPICS.contains(topic)) {
+            throw new IllegalArgumentException("Unknown dead-letter topic: " + topic + ". Expected one of " + DLT_TOPICS);
+        }
+    }
+}
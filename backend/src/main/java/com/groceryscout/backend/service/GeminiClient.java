@@ -0,0 +1,361 @@
+package com.groceryscout.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * HTTP client for the Gemini generateContent API, isolated from the rest of
+ * the app:
+ * - its own RestTemplate with connect/read timeouts
+ * - a bulkhead capping in-flight calls; callers beyond it fail fast unless
+ *   they give a maximum wait
+ * - a circuit breaker that stops calling Gemini during a brownout
+ *
+ * Every rejection or failure surfaces as {@link GeminiUnavailableException}.
+ * The base URL is configurable so a stub server can stand in for Gemini.
+ */
+@Component
+public class GeminiClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiClient.class);
+    private static final long BREAKER_POLL_MS = 50;
+
+    @Value("${gemini.api.key}")
+    private String apiKey;
+
+    @Value("${gemini.api.model:gemini-2.5-flash}")
+    private String model;
+
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String baseUrl;
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final Duration streamTimeout;
+    private final RestTemplate restTemplate;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer callTimer;
+    private final Counter rejectedOpen;
+    private final Counter rejectedBulkhead;
+    private final Counter failures;
+
+    public GeminiClient(MeterRegistry meterRegistry,
+            @Value("${gemini.client.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${gemini.client.read-timeout-ms:25000}") long readTimeoutMs,
+            @Value("${gemini.client.stream-timeout-ms:60000}") long streamTimeoutMs,
+            @Value("${gemini.client.max-in-flight:8}") int maxInFlight,
+            @Value("${gemini.client.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${gemini.client.breaker.open-ms:30000}") long openMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMs);
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.bulkhead = new Semaphore(maxInFlight);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openMs));
+
+        this.callTimer = Timer.builder("gemini.calls").register(meterRegistry);
+        this.rejectedOpen = Counter.builder("gemini.rejected").tag("reason", "circuit-open").register(meterRegistry);
+        this.rejectedBulkhead = Counter.builder("gemini.rejected").tag("reason", "bulkhead").register(meterRegistry);
+        this.failures = Counter.builder("gemini.failures").register(meterRegistry);
+        Gauge.builder("gemini.in-flight", bulkhead, s -> maxInFlight - s.availablePermits()).register(meterRegistry);
+        Gauge.builder("gemini.circuit.open", circuitBreaker,
+                cb -> cb.getState() == CircuitBreaker.State.CLOSED ? 0 : 1).register(meterRegistry);
+    }
+
+    /**
+     * Cheap pre-check so callers can fail fast before queueing work.
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN && bulkhead.availablePermits() > 0;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Sends a generateContent request and returns the raw response body.
+     */
+    public String generateContent(String requestJson) {
+        return generateContent(requestJson, Duration.ZERO);
+    }
+
+    /**
+     * Like {@link #generateContent(String)}, but waits up to {@code maxWait}
+     * for a bulkhead permit, or for a half-open breaker's trial call to
+     * settle, before giving up. An open breaker still fails at once.
+     */
+    public String generateContent(String requestJson, Duration maxWait) {
+        Permit permit = acquire(maxWait);
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("x-goog-api-key", apiKey);
+            String body = callTimer.recordCallable(() -> restTemplate.postForObject(
+                    endpoint("generateContent"), new HttpEntity<>(requestJson, headers), String.class));
+            permit.success();
+            return body;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().value() == 429) {
+                permit.failure(e);
+                throw new GeminiUnavailableException("Gemini quota exhausted", e);
+            }
+            // Our request was bad; Gemini itself is healthy
+            permit.success();
+            throw e;
+        } catch (Exception e) {
+            permit.failure(e);
+            throw new GeminiUnavailableException("Gemini request failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Calls streamGenerateContent (server-sent events) and hands each event's
+     * data payload, one JSON response chunk, to {@code onChunk} as it
+     * arrives. Runs on the HTTP client's threads; the returned future
+     * completes when the stream ends.
+     *
+     * If the stream times out or the caller cancels the returned future (the
+     * client went away), the HTTP exchange is aborted so Gemini stops
+     * generating. The bulkhead permit is held until the stream has ended or
+     * been aborted; a cancelled call does not count against the breaker.
+     */
+    public CompletableFuture<Void> streamGenerateContent(String requestJson, Consumer<String> onChunk) {
+        Permit permit = acquire();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint("streamGenerateContent") + "?alt=sse"))
+                .timeout(readTimeout)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header("x-goog-api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(requestJson))
+                .build();
+        SseDataSubscriber subscriber = new SseDataSubscriber(onChunk);
+        HttpResponse.BodyHandler<Void> handler = info -> info.statusCode() / 100 == 2
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber)
+                : HttpResponse.BodySubscribers.discarding();
+        long started = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> exchange;
+        try {
+            exchange = httpClient.sendAsync(request, handler);
+        } catch (RuntimeException e) {
+            permit.failure(e);
+            throw new GeminiUnavailableException("Gemini request failed: " + e.getMessage(), e);
+        }
+        CompletableFuture<Void> stream = new CompletableFuture<>();
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                stream.completeExceptionally(error);
+                return;
+            }
+            int status = response.statusCode();
+            if (status == 429 || status >= 500) {
+                stream.completeExceptionally(new GeminiUnavailableException("Gemini returned HTTP " + status));
+            } else if (status / 100 != 2) {
+                stream.completeExceptionally(new IllegalStateException("Gemini rejected the request: HTTP " + status));
+            } else {
+                stream.complete(null);
+            }
+        });
+        stream.orTimeout(streamTimeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((ignored, error) -> {
+            if (error != null) {
+                // Timed out, cancelled or failed: make sure the exchange is torn down before the permit goes back
+                subscriber.cancel();
+                exchange.cancel(true);
+            }
+            callTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause == null || cause instanceof IllegalStateException) {
+                permit.success();
+            } else if (cause instanceof CancellationException) {
+                permit.abandon();
+            } else {
+                permit.failure(cause);
+            }
+        });
+        return stream;
+    }
+
+    private String endpoint(String method) {
+        return baseUrl + "/models/" + model + ":" + method;
+    }
+
+    /**
+     * Takes a circuit-breaker and a bulkhead permission, or throws.
+     */
+    private Permit acquire() {
+        return acquire(Duration.ZERO);
+    }
+
+    private Permit acquire(Duration maxWait) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        try {
+            while (!circuitBreaker.tryAcquire()) {
+                // Open: fail now. Half-open: another call is the trial and settles the state shortly
+                if (circuitBreaker.getState() == CircuitBreaker.State.OPEN || deadline - System.nanoTime() <= 0) {
+                    rejectedOpen.increment();
+                    throw new GeminiUnavailableException("Recipe generation is temporarily unavailable");
+                }
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                Thread.sleep(Math.min(BREAKER_POLL_MS, remainingMs + 1));
+            }
+        } catch (InterruptedException e) {
+            throw abandoned();
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            circuitBreaker.release();
+            throw abandoned();
+        }
+        if (!acquired) {
+            circuitBreaker.release();
+            rejectedBulkhead.increment();
+            throw new GeminiUnavailableException("Recipe generation is at capacity, please retry shortly");
+        }
+        return new Permit();
+    }
+
+    private static CancellationException abandoned() {
+        Thread.currentThread().interrupt();
+        return new CancellationException("Gemini call was abandoned while waiting for capacity");
+    }
+
+    /**
+     * Collects 'data:' lines of an event stream into event payloads.
+     */
+    private static final class SseDataSubscriber implements Flow.Subscriber<String> {
+        private final Consumer<String> onData;
+        private final StringBuilder data = new StringBuilder();
+        private Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        SseDataSubscriber(Consumer<String> onData) {
+            this.onData = onData;
+        }
+
+        /**
+         * Stops reading the body, which closes the connection; safe to call
+         * before the response has arrived.
+         */
+        void cancel() {
+            Flow.Subscription current;
+            synchronized (this) {
+                cancelled = true;
+                current = subscription;
+            }
+            if (current != null)
+                current.cancel();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                this.subscription = subscription;
+                if (cancelled) {
+                    subscription.cancel();
+                    return;
+                }
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (cancelled)
+                return;
+            if (line.startsWith("data:")) {
+                if (data.length() > 0)
+                    data.append('\n');
+                data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+            } else if (line.isEmpty()) {
+                dispatch();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Surfaces through the response future
+        }
+
+        @Override
+        public void onComplete() {
+            dispatch();
+        }
+
+        private void dispatch() {
+            if (data.length() > 0) {
+                String payload = data.toString();
+                data.setLength(0);
+                onData.accept(payload);
+            }
+        }
+    }
+
+    /**
+     * One in-flight call; report exactly one outcome.
+     */
+    private final class Permit {
+        private boolean done;
+
+        void success() {
+            if (finish())
+                circuitBreaker.onSuccess();
+        }
+
+        /**
+         * The caller gave up; no outcome for the breaker.
+         */
+        void abandon() {
+            if (finish())
+                circuitBreaker.release();
+        }
+
+        void failure(Throwable cause) {
+            if (finish()) {
+                failures.increment();
+                circuitBreaker.onFailure();
+                log.warn("Gemini call failed (circuit {}): {}", circuitBreaker.getState(), cause.toString());
+            }
+        }
+
+        private synchronized boolean finish() {
+            if (done)
+                return false;
+            done = true;
+            bulkhead.release();
+            return true;
+        }
+    }
+}
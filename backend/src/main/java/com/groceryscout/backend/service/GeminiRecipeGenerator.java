@@ -0,0 +1,130 @@
+package com.groceryscout.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@link RecipeGenerator} backed by the Gemini generateContent API through
+ * {@link GeminiClient} (timeouts, bulkhead, circuit breaker).
+ */
+@Component
+@ConditionalOnProperty(name = "app.recipe-generator.provider", havingValue = "gemini", matchIfMissing = true)
+public class GeminiRecipeGenerator implements RecipeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiRecipeGenerator.class);
+
+    private final ObjectMapper objectMapper;
+    private final GeminiClient geminiClient;
+
+    public GeminiRecipeGenerator(ObjectMapper objectMapper, GeminiClient geminiClient) {
+        this.objectMapper = objectMapper;
+        this.geminiClient = geminiClient;
+    }
+
+    @Override
+    public String generate(String prompt, int servings) throws IOException {
+        return extractText(geminiClient.generateContent(buildRequestJson(prompt, servings)));
+    }
+
+    @Override
+    public String generate(String prompt, int servings, Duration maxWait) throws IOException {
+        return extractText(geminiClient.generateContent(buildRequestJson(prompt, servings), maxWait));
+    }
+
+    @Override
+    public CompletableFuture<Void> stream(String prompt, int servings, Consumer<String> onText) throws IOException {
+        return geminiClient.streamGenerateContent(buildRequestJson(prompt, servings), chunk -> {
+            String text = extractChunkText(chunk);
+            if (!text.isEmpty())
+                onText.accept(text);
+        });
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return geminiClient.getCircuitState() != CircuitBreaker.State.OPEN;
+    }
+
+    private String buildRequestJson(String prompt, int servings) throws JsonProcessingException {
+        // Reference weights for more accurate AI estimation
+        String weightReferenceTable = """
+                REFERENCE WEIGHTS (approx):
+                - 1 tomato ~= 150g
+                - 1 onion ~= 150g
+                - 1 potato ~= 200g
+                - 1 carrot ~= 100g
+                - 1 apple ~= 180g
+                - 1 cup rice ~= 200g
+                - 1 tbsp oil/sauce ~= 15g
+                - 1 tsp spice ~= 5g
+                - 1 egg ~= 50g
+                - 1 chicken breast ~= 200g
+                """;
+
+        String systemPrompt = """
+                You are a professional chef. Generate a detailed recipe based on the user's request.
+                CRITICAL INSTRUCTION: For ingredients, you MUST estimate the quantity in GRAMS (g) or MILLILITERS (ml) where possible.
+                Use the following reference weights if needed:
+                %s
+
+                Respond ONLY with valid JSON in this exact format, no markdown or code fences:
+                {
+                  "title": "Recipe Title",
+                  "instructions": ["Step 1", "Step 2", "Step 3"],
+                  "prepTime": "30 minutes",
+                  "difficulty": "Easy|Medium|Hard",
+                  "ingredients": [
+                    {"name": "Ingredient Name", "quantity": "2 cups", "quantity_grams": 300},
+                    {"name": "Another Ingredient", "quantity": "1 tbsp", "quantity_grams": 15}
+                  ]
+                }
+                """
+                .formatted(weightReferenceTable);
+
+        Map<String, Object> requestBody = Map.of(
+                "contents", List.of(Map.of("parts", List.of(Map.of("text",
+                        systemPrompt + "\nUser Request: " + prompt + " for " + servings + " people.")))));
+
+        return objectMapper.writeValueAsString(requestBody);
+    }
+
+    /**
+     * Extracts the model text from a generateContent response.
+     */
+    private String extractText(String responseBody) throws JsonProcessingException {
+        JsonNode root = objectMapper.readTree(responseBody);
+        return root.path("candidates").get(0)
+                .path("content").path("parts").get(0)
+                .path("text").asText();
+    }
+
+    /**
+     * Joins the text parts of one streamed response chunk; empty if the chunk
+     * carries no text (e.g. the final usage-only chunk) or cannot be read.
+     */
+    private String extractChunkText(String chunkJson) {
+        try {
+            StringBuilder text = new StringBuilder();
+            for (JsonNode part : objectMapper.readTree(chunkJson).path("candidates").path(0)
+                    .path("content").path("parts")) {
+                text.append(part.path("text").asText(""));
+            }
+            return text.toString();
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable Gemini stream chunk: {}", e.getOriginalMessage());
+            return "";
+        }
+    }
+}
@@ -5,123 +5,456 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.groceryscout.backend.dto.CartRequest;
 import com.groceryscout.backend.entity.*;
+import com.groceryscout.backend.repository.CartItemRepository;
 import com.groceryscout.backend.repository.HiddenRecipeRepository;
 import com.groceryscout.backend.repository.ProductRepository;
 import com.groceryscout.backend.repository.RecipeRepository;
 import com.groceryscout.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
- * Service for AI-driven recipe generation using Google Gemini API.
- * Handles prompt construction, response parsing, and ingredient mapping to
- * internal inventory.
+ * Service for AI-driven recipe generation. The model call goes through the
+ * configured {@link RecipeGenerator} (Gemini by default); this service handles
+ * caching, response parsing, ingredient mapping to internal inventory and
+ * persistence.
  */
 @Service
 public class GeminiRecipeService {
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
-
-    @Value("${gemini.api.model:gemini-2.5-flash}")
-    private String geminiModel;
-
-    private static final String GEMINI_URL = "https://generativelanguage.googleapis.com/v1beta/models/%s:generateContent?key=%s";
+    private static final Logger log = LoggerFactory.getLogger(GeminiRecipeService.class);
+    private static final Pattern LEADING_NUMBER = Pattern.compile("^(\\d+)");
+    private static final Pattern GRAMS_SUFFIX = Pattern.compile("\\((\\d+)g\\)");
+    // Time reserved after a meal plan's deadline for saving it before the request times out
+    private static final long PLAN_PERSIST_MARGIN_MS = 2000;
 
     private final ObjectMapper objectMapper;
-    private final ProductRepository productRepository;
     private final RecipeRepository recipeRepository;
-    private final RestTemplate restTemplate;
+    private final RecipeGenerator recipeGenerator;
     private final HiddenRecipeRepository hiddenRecipeRepository;
     private final UserRepository userRepository;
     private final KafkaEventService kafkaEventService;
-
-    public GeminiRecipeService(ObjectMapper objectMapper, ProductRepository productRepository,
-            RecipeRepository recipeRepository, RestTemplate restTemplate,
-            HiddenRecipeRepository hiddenRecipeRepository, UserRepository userRepository,
-            KafkaEventService kafkaEventService) {
+    private final RecipeGenerationCache recipeGenerationCache;
+    private final IngredientMatcher ingredientMatcher;
+    private final RecipeService recipeService;
+    private final CartItemRepository cartItemRepository;
+    private final ProductRepository productRepository;
+    private final ThreadPoolExecutor generationExecutor;
+    private final Map<Long, Semaphore> mealPlanPermits = new ConcurrentHashMap<>();
+    private final long requestTimeoutMs;
+    private final long maxQueueWaitNanos;
+
+    @Value("${app.meal-plan.max-per-user:1}")
+    private int mealPlansPerUser;
+
+    @Value("${gemini.client.stream-timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    public GeminiRecipeService(ObjectMapper objectMapper, RecipeRepository recipeRepository,
+            RecipeGenerator recipeGenerator, HiddenRecipeRepository hiddenRecipeRepository, UserRepository userRepository,
+            KafkaEventService kafkaEventService, RecipeGenerationCache recipeGenerationCache,
+            IngredientMatcher ingredientMatcher, RecipeService recipeService,
+            CartItemRepository cartItemRepository, ProductRepository productRepository,
+            @Value("${gemini.client.max-in-flight:8}") int maxInFlight,
+            @Value("${gemini.client.queue-capacity:32}") int queueCapacity,
+            @Value("${gemini.client.read-timeout-ms:25000}") long readTimeoutMs,
+            @Value("${spring.mvc.async.request-timeout:35s}") Duration requestTimeout) {
         this.objectMapper = objectMapper;
-        this.productRepository = productRepository;
         this.recipeRepository = recipeRepository;
-        this.restTemplate = restTemplate;
+        this.recipeGenerator = recipeGenerator;
         this.hiddenRecipeRepository = hiddenRecipeRepository;
         this.userRepository = userRepository;
         this.kafkaEventService = kafkaEventService;
+        this.recipeGenerationCache = recipeGenerationCache;
+        this.ingredientMatcher = ingredientMatcher;
+        this.recipeService = recipeService;
+        this.cartItemRepository = cartItemRepository;
+        this.productRepository = productRepository;
+        this.requestTimeoutMs = requestTimeout.toMillis();
+        // A job must start early enough for a full model call to fit in the request
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, requestTimeoutMs - readTimeoutMs));
+        AtomicInteger counter = new AtomicInteger();
+        this.generationExecutor = new ThreadPoolExecutor(maxInFlight, maxInFlight, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "recipe-generation-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        generationExecutor.shutdownNow();
+    }
+
+    /**
+     * Non-blocking variant of {@link #generateRecipe} for the web layer: cache
+     * hits complete immediately, generator calls run on a bounded pool so
+     * request threads are released while the model is working. Fails with
+     * {@link GeminiUnavailableException} when the generator is unavailable,
+     * the pool and its queue are full or the job waited too long to start,
+     * and with a {@link TimeoutException} when the request's async timeout
+     * passes first (see {@link #submitGeneration}).
+     */
+    public CompletableFuture<Recipe> generateRecipeAsync(String prompt, int servings, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Optional<Recipe> reused = reuseCached(prompt, servings, user);
+        if (reused.isPresent()) {
+            return CompletableFuture.completedFuture(reused.get());
+        }
+        if (!recipeGenerator.isAvailable()) {
+            return CompletableFuture.failedFuture(
+                    new GeminiUnavailableException("Recipe generation is temporarily unavailable"));
+        }
+        try {
+            return submitGeneration(() -> generateNew(prompt, servings, user));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new GeminiUnavailableException("Recipe generation is at capacity, please retry shortly"));
+        }
+    }
+
+    /**
+     * Generates a multi-day meal plan: one recipe per day prompt, fanned out
+     * on the generation pool so the plan takes about as long as its slowest
+     * recipe. Days answered by the recipe cache skip generation. Once every
+     * day is parsed, ingredients are deduplicated across the plan and
+     * matched in one batch, and all new recipes are saved in one transaction.
+     *
+     * A plan is admitted only if the pool can queue all of its days at once.
+     * Admitted days wait for a Gemini permit until the plan's deadline rather
+     * than failing on a momentarily full bulkhead; the deadline leaves
+     * {@link #PLAN_PERSIST_MARGIN_MS} before the request times out for the
+     * save. The first failing day, or the deadline, fails the plan and
+     * cancels the other days; a plan that has started saving is no longer
+     * failed by the deadline, so the client never gets an error for a plan
+     * that was saved. Each user may have at most app.meal-plan.max-per-user
+     * plans in flight; beyond that the call fails with
+     * {@link MealPlanLimitException}.
+     *
+     * @return the plan's recipes in day order
+     */
+    public CompletableFuture<List<Recipe>> generateMealPlanAsync(List<String> dayPrompts, int servings,
+            String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!acquireMealPlanPermit(user.getId())) {
+            return CompletableFuture.failedFuture(
+                    new MealPlanLimitException("A meal plan is already being generated for you"));
+        }
+
+        CompletableFuture<List<Recipe>> plan = new CompletableFuture<>();
+        plan.whenComplete((recipes, error) -> releaseMealPlanPermit(user.getId()));
+        // Set once by whichever of failure, deadline or save gets there first
+        AtomicBoolean settled = new AtomicBoolean();
+        long planTimeoutMs = Math.max(0, requestTimeoutMs - PLAN_PERSIST_MARGIN_MS);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(planTimeoutMs);
+
+        List<Recipe> cachedDays = new ArrayList<>(Collections.nCopies(dayPrompts.size(), null));
+        Set<Integer> generatedDays = new TreeSet<>();
+        for (int day = 0; day < dayPrompts.size(); day++) {
+            // Day prompts differ only in their day number, so a near match would be another day's dish
+            Optional<Recipe> cached = dayPrompts.size() > 1
+                    ? recipeGenerationCache.lookupExact(dayPrompts.get(day), servings)
+                    : recipeGenerationCache.lookup(dayPrompts.get(day), servings);
+            if (cached.isPresent()) {
+                Recipe source = cached.get();
+                boolean own = source.getCreator() != null && user.getId().equals(source.getCreator().getId());
+                cachedDays.set(day, own ? source : copyForUser(source, user));
+            } else {
+                generatedDays.add(day);
+            }
+        }
+        if (!generatedDays.isEmpty()) {
+            if (!recipeGenerator.isAvailable()) {
+                plan.completeExceptionally(
+                        new GeminiUnavailableException("Recipe generation is temporarily unavailable"));
+                return plan;
+            }
+            if (generationExecutor.getQueue().remainingCapacity() < generatedDays.size()) {
+                plan.completeExceptionally(
+                        new GeminiUnavailableException("Recipe generation is at capacity, please retry shortly"));
+                return plan;
+            }
+        }
+
+        List<CompletableFuture<Recipe>> days = new ArrayList<>(dayPrompts.size());
+        try {
+            for (int day = 0; day < dayPrompts.size(); day++) {
+                if (!generatedDays.contains(day)) {
+                    days.add(CompletableFuture.completedFuture(cachedDays.get(day)));
+                    continue;
+                }
+                String prompt = dayPrompts.get(day);
+                days.add(submitGeneration(() -> {
+                    Duration maxWait = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+                    String text = recipeGenerator.generate(prompt, servings, maxWait);
+                    checkNotAbandoned();
+                    return parseRecipe(servings, user, stripCodeFences(text));
+                }, Long.MAX_VALUE)); // bounded by the plan deadline instead
+            }
+        } catch (RejectedExecutionException e) {
+            // Another request took the queue space between the check and the submit
+            days.forEach(day -> day.cancel(true));
+            plan.completeExceptionally(
+                    new GeminiUnavailableException("Recipe generation is at capacity, please retry shortly"));
+            return plan;
+        }
+
+        // Fail fast: the first failed day, or the plan deadline, cancels the rest
+        plan.whenComplete((recipes, error) -> {
+            if (error != null)
+                days.forEach(day -> day.cancel(true));
+        });
+        CompletableFuture.delayedExecutor(planTimeoutMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (settled.compareAndSet(false, true))
+                plan.completeExceptionally(new TimeoutException("Meal plan generation timed out"));
+        });
+        for (CompletableFuture<Recipe> day : days) {
+            day.whenComplete((recipe, error) -> {
+                if (error != null && settled.compareAndSet(false, true))
+                    plan.completeExceptionally(error);
+            });
+        }
+        CompletableFuture.allOf(days.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            if (!settled.compareAndSet(false, true))
+                return; // already failed or timed out; nothing is saved
+            try {
+                List<Recipe> recipes = days.stream().map(CompletableFuture::join).toList();
+                plan.complete(persistPlan(recipes, generatedDays, dayPrompts, servings));
+            } catch (RuntimeException e) {
+                plan.completeExceptionally(e);
+            }
+        });
+        return plan;
+    }
+
+    /**
+     * Permits live in the map only while the user has a plan in flight, so
+     * it stays as small as the number of concurrent planners.
+     */
+    private boolean acquireMealPlanPermit(Long userId) {
+        boolean[] acquired = new boolean[1];
+        mealPlanPermits.compute(userId, (id, permits) -> {
+            Semaphore current = permits != null ? permits : new Semaphore(mealPlansPerUser);
+            acquired[0] = current.tryAcquire();
+            return current;
+        });
+        return acquired[0];
+    }
+
+    private void releaseMealPlanPermit(Long userId) {
+        mealPlanPermits.computeIfPresent(userId, (id, permits) -> {
+            permits.release();
+            return permits.availablePermits() >= mealPlansPerUser ? null : permits;
+        });
+    }
+
+    /**
+     * Links the generated recipes' ingredients in one batch and saves every
+     * new recipe of the plan in one transaction; events and cache entries
+     * follow the commit.
+     */
+    private List<Recipe> persistPlan(List<Recipe> recipes, Set<Integer> generatedDays, List<String> dayPrompts,
+            int servings) {
+        List<Recipe> generated = generatedDays.stream().sorted().map(recipes::get).toList();
+        linkProducts(generated);
+        List<Recipe> unsaved = recipes.stream().filter(r -> r.getId() == null).toList();
+        recipeRepository.saveAll(unsaved); // one transaction; new recipes get their ids in place
+        for (Recipe recipe : unsaved) {
+            afterSave(recipe);
+        }
+        for (int day : generatedDays) {
+            recipeGenerationCache.put(dayPrompts.get(day), servings, recipes.get(day).getId());
+        }
+        log.info("Meal plan of {} recipes saved ({} generated, {} distinct ingredients matched)", recipes.size(),
+                generated.size(), generated.stream().flatMap(r -> r.getIngredients().stream())
+                        .map(i -> IngredientAliasService.normalize(i.getName())).distinct().count());
+        return recipes;
+    }
+
+    /**
+     * Streaming variant of {@link #generateRecipe}: the model's output is
+     * forwarded over SSE while it is being written, and the recipe is saved
+     * once the stream ends. Events:
+     * - status: sent immediately ("generating")
+     * - delta: raw model text as it arrives
+     * - field / instruction / ingredient: recipe parts as soon as they are
+     *   complete in the partial JSON
+     * - recipe: the saved Recipe (also the only event on a cache hit)
+     * - error: generation failed; 'status' is 503 when Gemini is unavailable
+     */
+    public SseEmitter generateRecipeStream(String prompt, int servings, String userEmail) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs + 10_000);
+        StreamSession session = new StreamSession(emitter);
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Optional<Recipe> reused = reuseCached(prompt, servings, user);
+        if (reused.isPresent()) {
+            session.send("recipe", reused.get());
+            emitter.complete();
+            return emitter;
+        }
+
+        StringBuilder text = new StringBuilder();
+        RecipeStreamParser parser = new RecipeStreamParser(session);
+        session.send("status", "generating");
+        CompletableFuture<Void> stream;
+        try {
+            stream = recipeGenerator.stream(prompt, servings, delta -> {
+                if (session.closed)
+                    return;
+                text.append(delta);
+                session.send("delta", delta);
+                session.feed(parser, delta);
+            });
+        } catch (RuntimeException | IOException e) {
+            session.fail(e);
+            return emitter;
+        }
+        // A client that went away aborts the model call instead of letting it run to the end
+        session.onClose(() -> stream.cancel(true));
+
+        stream.thenApplyAsync(ignored -> {
+            try {
+                return persistGenerated(prompt, servings, user, stripCodeFences(text.toString()));
+            } catch (JsonProcessingException e) {
+                throw new CompletionException(e);
+            }
+        }, generationExecutor).whenComplete((recipe, error) -> {
+            if (error != null) {
+                session.fail(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+            } else {
+                session.send("recipe", recipe);
+                emitter.complete();
+            }
+        });
+        return emitter;
     }
 
     /**
      * Generates a recipe based on user input, mapped to available inventory
-     * products.
+     * products. Equivalent earlier requests are answered from
+     * {@link RecipeGenerationCache} without calling the model: the user's own
+     * recipe is returned as is, anyone else's is copied to the user.
      *
      * @param prompt    User's culinary request
      * @param servings  Number of servings required
      * @param userEmail Requesting user's email
      * @return Generated Recipe entity
      */
-    public Recipe generateRecipe(String prompt, int servings, String userEmail) throws JsonProcessingException {
-        String url = String.format(GEMINI_URL, geminiModel, geminiApiKey);
-
-        // Reference weights for more accurate AI estimation
-        String weightReferenceTable = """
-                REFERENCE WEIGHTS (approx):
-                - 1 tomato ~= 150g
-                - 1 onion ~= 150g
-                - 1 potato ~= 200g
-                - 1 carrot ~= 100g
-                - 1 apple ~= 180g
-                - 1 cup rice ~= 200g
-                - 1 tbsp oil/sauce ~= 15g
-                - 1 tsp spice ~= 5g
-                - 1 egg ~= 50g
-                - 1 chicken breast ~= 200g
-                """;
-
-        String systemPrompt = """
-                You are a professional chef. Generate a detailed recipe based on the user's request.
-                CRITICAL INSTRUCTION: For ingredients, you MUST estimate the quantity in GRAMS (g) or MILLILITERS (ml) where possible.
-                Use the following reference weights if needed:
-                %s
-
-                Respond ONLY with valid JSON in this exact format, no markdown or code fences:
-                {
-                  "title": "Recipe Title",
-                  "instructions": ["Step 1", "Step 2", "Step 3"],
-                  "prepTime": "30 minutes",
-                  "difficulty": "Easy|Medium|Hard",
-                  "ingredients": [
-                    {"name": "Ingredient Name", "quantity": "2 cups", "quantity_grams": 300},
-                    {"name": "Another Ingredient", "quantity": "1 tbsp", "quantity_grams": 15}
-                  ]
-                }
-                """
-                .formatted(weightReferenceTable);
+    public Recipe generateRecipe(String prompt, int servings, String userEmail) throws IOException {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Optional<Recipe> reused = reuseCached(prompt, servings, user);
+        if (reused.isPresent()) {
+            return reused.get();
+        }
+        return generateNew(prompt, servings, user);
+    }
+
+    private Optional<Recipe> reuseCached(String prompt, int servings, User user) {
+        return recipeGenerationCache.lookup(prompt, servings).map(source -> {
+            if (source.getCreator() != null && user.getId().equals(source.getCreator().getId())) {
+                return source;
+            }
+            return saveAndPublish(copyForUser(source, user));
+        });
+    }
 
-        Map<String, Object> requestBody = Map.of(
-                "contents", List.of(Map.of("parts", List.of(Map.of("text",
-                        systemPrompt + "\nUser Request: " + prompt + " for " + servings + " people.")))));
+    private Recipe generateNew(String prompt, int servings, User user) throws IOException {
+        String text = recipeGenerator.generate(prompt, servings);
+        checkNotAbandoned();
+        return persistGenerated(prompt, servings, user, stripCodeFences(text));
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(requestBody), headers);
+    /**
+     * Runs a generation job on the bounded pool for a request with an async
+     * timeout. A job that waited in the queue longer than the timeout leaves
+     * room for a model call fails without calling the model, and when the
+     * returned future fails or times out the job is cancelled (interrupting
+     * it), so nothing is generated or saved for a client that has gone.
+     *
+     * @throws RejectedExecutionException when the pool and its queue are full
+     */
+    private <T> CompletableFuture<T> submitGeneration(Callable<T> job) {
+        return submitGeneration(job, maxQueueWaitNanos);
+    }
 
-        ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-        String recipeJson = extractJsonFromResponse(response.getBody());
+    private <T> CompletableFuture<T> submitGeneration(Callable<T> job, long maxQueueWaitNanos) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = generationExecutor.submit(() -> {
+            if (result.isDone())
+                return;
+            if (System.nanoTime() - enqueuedAt > maxQueueWaitNanos) {
+                result.completeExceptionally(
+                        new GeminiUnavailableException("Recipe generation is at capacity, please retry shortly"));
+                return;
+            }
+            try {
+                result.complete(job.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error != null)
+                task.cancel(true);
+        });
+        return result;
+    }
 
-        // Parse Gemini response
+    /**
+     * Stops a cancelled job between the model call and persistence.
+     */
+    private static void checkNotAbandoned() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Recipe request was abandoned");
+        }
+    }
+
+    /**
+     * Parses the model's recipe JSON, links ingredients to products and saves
+     * the recipe.
+     */
+    private Recipe persistGenerated(String prompt, int servings, User user, String recipeJson)
+            throws JsonProcessingException {
+        Recipe recipe = parseRecipe(servings, user, recipeJson);
+        linkProducts(List.of(recipe));
+        Recipe saved = saveAndPublish(recipe);
+        recipeGenerationCache.put(prompt, servings, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Builds an unsaved Recipe from the model's JSON; ingredients are not yet
+     * linked to products.
+     */
+    private Recipe parseRecipe(int servings, User user, String recipeJson) throws JsonProcessingException {
         JsonNode root = objectMapper.readTree(recipeJson);
         String title = root.path("title").asText("Untitled Recipe");
         String prepTime = root.path("prepTime").asText("");
@@ -136,93 +469,95 @@ public class GeminiRecipeService {
             }
         }
 
-        // Find user
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Create and save Recipe entity
         Recipe recipe = new Recipe();
         recipe.setTitle(title);
         recipe.setInstructions(instructionsBuilder.toString().trim());
         recipe.setPrepTime(prepTime);
         recipe.setDifficulty(difficulty);
+        recipe.setServings(servings);
         recipe.setCreator(user);
 
-        // Parse and link ingredients
-        List<String> ingredientNames = new ArrayList<>();
-        JsonNode ingredientsNode = root.path("ingredients");
-        if (ingredientsNode.isArray()) {
-            for (JsonNode ingNode : ingredientsNode) {
-                Ingredient ingredient = new Ingredient();
-                String ingName = ingNode.path("name").asText();
-                ingredient.setName(ingName);
-                ingredientNames.add(ingName);
-
-                String qty = ingNode.path("quantity").asText("");
-                int qtyGrams = ingNode.path("quantity_grams").asInt(0);
-                ingredient.setQuantity(qtyGrams > 0 ? qty + " (" + qtyGrams + "g)" : qty);
-
-                // Try to match to a product in inventory
-                Product matched = matchIngredientToProduct(ingName);
-                ingredient.setLinkedProduct(matched);
-
-                ingredient.setRecipe(recipe);
-                recipe.getIngredients().add(ingredient);
+        for (JsonNode ingNode : root.path("ingredients")) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setName(ingNode.path("name").asText());
+
+            String qty = ingNode.path("quantity").asText("");
+            int qtyGrams = ingNode.path("quantity_grams").asInt(0);
+            ingredient.setQuantity(qtyGrams > 0 ? qty + " (" + qtyGrams + "g)" : qty);
+
+            ingredient.setRecipe(recipe);
+            recipe.getIngredients().add(ingredient);
+        }
+        return recipe;
+    }
+
+    /**
+     * Links the ingredients of all given recipes to inventory products with
+     * one batch match over the distinct ingredient names, so an ingredient
+     * shared by several recipes is matched once.
+     */
+    private void linkProducts(List<Recipe> recipes) {
+        Map<String, List<Ingredient>> byName = new LinkedHashMap<>();
+        for (Recipe recipe : recipes) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                String key = IngredientAliasService.normalize(ingredient.getName());
+                if (key != null)
+                    byName.computeIfAbsent(key, k -> new ArrayList<>()).add(ingredient);
+            }
+        }
+        List<String> names = new ArrayList<>(byName.keySet());
+        List<Product> matches = ingredientMatcher.matchAll(names);
+        for (int i = 0; i < names.size(); i++) {
+            for (Ingredient ingredient : byName.get(names.get(i))) {
+                ingredient.setLinkedProduct(matches.get(i));
             }
         }
+    }
 
+    private Recipe saveAndPublish(Recipe recipe) {
         Recipe saved = recipeRepository.save(recipe);
+        afterSave(saved);
+        return saved;
+    }
+
+    private void afterSave(Recipe saved) {
+        if (saved.getCreator() != null && saved.getCreator().getRole() == Role.MANAGER) {
+            recipeService.invalidateManagerRecipes();
+        }
 
         // Publish Kafka event
+        List<String> ingredientNames = saved.getIngredients().stream().map(Ingredient::getName).toList();
         kafkaEventService.sendRecipeGenerated(saved.getId(), String.join(",", ingredientNames));
+    }
 
-        return saved;
+    private Recipe copyForUser(Recipe source, User user) {
+        Recipe copy = new Recipe();
+        copy.setTitle(source.getTitle());
+        copy.setInstructions(source.getInstructions());
+        copy.setPrepTime(source.getPrepTime());
+        copy.setDifficulty(source.getDifficulty());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setServings(source.getServings());
+        copy.setCreator(user);
+        for (Ingredient sourceIngredient : source.getIngredients()) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setName(sourceIngredient.getName());
+            ingredient.setQuantity(sourceIngredient.getQuantity());
+            ingredient.setLinkedProduct(sourceIngredient.getLinkedProduct());
+            ingredient.setRecipe(copy);
+            copy.getIngredients().add(ingredient);
+        }
+        return copy;
     }
 
     /**
      * Strict ingredient-to-product matching.
      * Prevents false positives like "water" matching "watermelon".
+     *
+     * @see IngredientIndex for the matching rules
      */
     public Product matchIngredientToProduct(String ingredientName) {
-        if (ingredientName == null || ingredientName.isBlank())
-            return null;
-
-        String normalized = ingredientName.toLowerCase().trim();
-
-        // Skip generic/non-purchasable ingredients
-        Set<String> skipList = Set.of("water", "salt", "ice", "oil", "sugar");
-        if (skipList.contains(normalized))
-            return null;
-
-        // 1. Try exact name match first
-        List<Product> matches = productRepository.searchByName(ingredientName);
-        for (Product p : matches) {
-            // Only accept if the product name CONTAINS the full ingredient name
-            // OR the ingredient name CONTAINS the full product name
-            String pName = p.getName().toLowerCase();
-            if (pName.equals(normalized) || pName.contains(normalized) || normalized.contains(pName)) {
-                return p;
-            }
-        }
-
-        // 2. Try individual significant words (min 4 chars to avoid "water" matching
-        // "watermelon")
-        String[] words = normalized.split("\\s+");
-        for (String word : words) {
-            if (word.length() >= 4 && !skipList.contains(word)) {
-                matches = productRepository.searchByName(word);
-                for (Product p : matches) {
-                    // Verify the match is meaningful: product name should start with or equal the
-                    // word
-                    String pName = p.getName().toLowerCase();
-                    if (pName.startsWith(word) || pName.contains(" " + word)) {
-                        return p;
-                    }
-                }
-            }
-        }
-
-        return null;
+        return ingredientMatcher.match(ingredientName);
     }
 
     public CartRequest convertRecipeToCart(Long recipeId) {
@@ -231,75 +566,137 @@ public class GeminiRecipeService {
 
         CartRequest cart = new CartRequest();
         cart.setDeliveryAddress("From Recipe: " + recipe.getTitle());
-        List<CartRequest.CartItemRequest> items = new ArrayList<>();
-
-        for (Ingredient ingredient : recipe.getIngredients()) {
-            if (ingredient.getLinkedProduct() != null) {
-                Product product = ingredient.getLinkedProduct();
-                CartRequest.CartItemRequest item = new CartRequest.CartItemRequest();
-                item.setProductId(product.getId());
-
-                int quantityToAdd = 1;
+        List<CartRequest.CartItemRequest> items = consolidate(recipe.getIngredients());
+        if (items.isEmpty()) {
+            throw new RuntimeException("No products matched for this recipe's ingredients");
+        }
+        cart.setItems(items);
+        return cart;
+    }
 
-                int requiredGrams = parseGramsFromQuantity(ingredient.getQuantity());
+    /**
+     * One cart for several recipes: recipes, ingredients and linked products
+     * are loaded in a single query and requirements are merged per product
+     * before pack counts are computed.
+     */
+    public CartRequest buildShoppingList(List<Long> recipeIds) {
+        Set<Long> ids = new LinkedHashSet<>(recipeIds);
+        List<Recipe> recipes = recipeRepository.findWithIngredientsByIdIn(ids);
+        if (recipes.size() < ids.size()) {
+            Set<Long> missing = new LinkedHashSet<>(ids);
+            recipes.forEach(r -> missing.remove(r.getId()));
+            throw new IllegalArgumentException("Recipes not found: " + missing);
+        }
 
-                if (requiredGrams > 0 && product.getWeightInGrams() != null && product.getWeightInGrams() > 0) {
-                    quantityToAdd = (int) Math.ceil((double) requiredGrams / product.getWeightInGrams());
-                } else {
-                    quantityToAdd = parseQuantity(ingredient.getQuantity());
-                }
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            ingredients.addAll(recipe.getIngredients());
+        }
+        List<CartRequest.CartItemRequest> items = consolidate(ingredients);
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("No products matched for these recipes' ingredients");
+        }
 
-                if (quantityToAdd < 1)
-                    quantityToAdd = 1;
+        CartRequest cart = new CartRequest();
+        cart.setDeliveryAddress("From Recipes: "
+                + recipes.stream().map(Recipe::getTitle).collect(Collectors.joining(", ")));
+        cart.setItems(items);
+        return cart;
+    }
 
-                item.setQuantity(quantityToAdd);
-                items.add(item);
+    /**
+     * Merges cart lines into the user's cart: quantities are added to the
+     * user's existing line for a product, other products get a new line, and
+     * everything is written with one saveAll. No order is placed.
+     */
+    @Transactional
+    public void addToCart(String userEmail, List<CartRequest.CartItemRequest> lines) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Map<Long, CartItem> cart = new HashMap<>();
+        for (CartItem item : cartItemRepository.findByUserId(user.getId())) {
+            cart.put(item.getProduct().getId(), item);
+        }
+        List<CartItem> changed = new ArrayList<>(lines.size());
+        for (CartRequest.CartItemRequest line : lines) {
+            CartItem item = cart.get(line.getProductId());
+            if (item == null) {
+                item = new CartItem();
+                item.setUser(user);
+                // Only the foreign key is needed; the lines come from linked products
+                item.setProduct(productRepository.getReferenceById(line.getProductId()));
+                item.setQuantity(line.getQuantity());
+            } else {
+                item.setQuantity(item.getQuantity() + line.getQuantity());
             }
+            changed.add(item);
         }
+        cartItemRepository.saveAll(changed);
+    }
 
-        if (items.isEmpty()) {
-            throw new RuntimeException("No products matched for this recipe's ingredients");
+    /**
+     * Cart lines for the linked products. Gram requirements are summed per
+     * product and converted to packs once, so two recipes needing 200g each
+     * from a 500g pack buy one pack rather than one per recipe line;
+     * ingredients without grams (or products without a pack weight) add their
+     * leading count.
+     */
+    private List<CartRequest.CartItemRequest> consolidate(List<Ingredient> ingredients) {
+        Map<Long, Product> products = new LinkedHashMap<>();
+        Map<Long, int[]> needs = new HashMap<>(); // [grams, units]
+        for (Ingredient ingredient : ingredients) {
+            Product product = ingredient.getLinkedProduct();
+            if (product == null)
+                continue;
+            products.putIfAbsent(product.getId(), product);
+            int[] need = needs.computeIfAbsent(product.getId(), id -> new int[2]);
+            int requiredGrams = parseGramsFromQuantity(ingredient.getQuantity());
+            if (requiredGrams > 0 && product.getWeightInGrams() != null && product.getWeightInGrams() > 0) {
+                need[0] += requiredGrams;
+            } else {
+                need[1] += Math.max(1, parseQuantity(ingredient.getQuantity()));
+            }
         }
 
-        cart.setItems(items);
-        return cart;
+        List<CartRequest.CartItemRequest> items = new ArrayList<>(products.size());
+        for (Product product : products.values()) {
+            int[] need = needs.get(product.getId());
+            int packs = need[0] > 0 ? (int) Math.ceil((double) need[0] / product.getWeightInGrams()) : 0;
+            CartRequest.CartItemRequest item = new CartRequest.CartItemRequest();
+            item.setProductId(product.getId());
+            item.setQuantity(Math.max(1, packs + need[1]));
+            items.add(item);
+        }
+        return items;
     }
 
     private int parseQuantity(String quantityStr) {
         if (quantityStr == null)
             return 1;
-        try {
-            Matcher matcher = Pattern.compile("^(\\d+)").matcher(quantityStr);
-            if (matcher.find()) {
+        Matcher matcher = LEADING_NUMBER.matcher(quantityStr);
+        if (matcher.find()) {
+            try {
                 return Integer.parseInt(matcher.group(1));
+            } catch (NumberFormatException ignored) {
             }
-        } catch (Exception e) {
-            /* ignore */ }
+        }
         return 1;
     }
 
     private int parseGramsFromQuantity(String quantityStr) {
         if (quantityStr == null)
             return 0;
-        try {
-            Matcher matcher = Pattern.compile("\\((\\d+)g\\)").matcher(quantityStr);
-            if (matcher.find()) {
+        Matcher matcher = GRAMS_SUFFIX.matcher(quantityStr);
+        if (matcher.find()) {
+            try {
                 return Integer.parseInt(matcher.group(1));
+            } catch (NumberFormatException ignored) {
             }
-        } catch (Exception e) {
-            /* ignore */ }
+        }
         return 0;
     }
 
-    /**
-     * Extracts the recipe JSON string from the Gemini API response.
-     */
-    private String extractJsonFromResponse(String responseBody) throws JsonProcessingException {
-        JsonNode root = objectMapper.readTree(responseBody);
-        String text = root.path("candidates").get(0)
-                .path("content").path("parts").get(0)
-                .path("text").asText();
-
+    private static String stripCodeFences(String text) {
         // Strip markdown code fences if present
         text = text.trim();
         if (text.startsWith("```json")) {
@@ -312,4 +709,84 @@ public class GeminiRecipeService {
         }
         return text.trim();
     }
+
+    /**
+     * One SSE client of {@link #generateRecipeStream}; stops sending once the
+     * client is gone.
+     */
+    private final class StreamSession implements RecipeStreamParser.Listener {
+        private final SseEmitter emitter;
+        private volatile boolean closed;
+        private volatile Runnable onClose = () -> {
+        };
+        private boolean parseFailed;
+
+        StreamSession(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        /**
+         * Runs {@code action} once the emitter is done or the client has gone.
+         */
+        void onClose(Runnable action) {
+            onClose = action;
+            if (closed)
+                action.run();
+        }
+
+        private void close() {
+            closed = true;
+            onClose.run();
+        }
+
+        void feed(RecipeStreamParser parser, String delta) {
+            if (parseFailed)
+                return;
+            try {
+                parser.feed(delta);
+            } catch (IOException e) {
+                // Partial events stop; the full text is still parsed at the end
+                parseFailed = true;
+            }
+        }
+
+        void send(String event, Object data) {
+            if (closed)
+                return;
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        void fail(Throwable error) {
+            int status = error instanceof GeminiUnavailableException || error instanceof RejectedExecutionException
+                    ? 503
+                    : 500;
+            if (status == 500) {
+                log.error("Streaming recipe generation failed", error);
+            }
+            send("error", Map.of("status", status, "error", String.valueOf(error.getMessage())));
+            emitter.complete();
+        }
+
+        @Override
+        public void onField(String name, String value) {
+            send("field", Map.of("name", name, "value", String.valueOf(value)));
+        }
+
+        @Override
+        public void onInstruction(int index, String step) {
+            send("instruction", Map.of("index", index, "text", String.valueOf(step)));
+        }
+
+        @Override
+        public void onIngredient(String name, String quantity, int grams) {
+            send("ingredient", Map.of("name", name, "quantity", String.valueOf(quantity), "grams", grams));
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.groceryscout.backend.service;
+
+/**
+ * Gemini cannot take the request right now (circuit open, at capacity,
+ * timed out or failing). Mapped to 503 so clients can retry later.
+ */
+public class GeminiUnavailableException extends RuntimeException {
+
+    public GeminiUnavailableException(String message) {
+        super(message);
+    }
+
+    public GeminiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,272 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.entity.IngredientAlias;
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.repository.IngredientAliasRepository;
+import com.groceryscout.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent ingredient alias → product mapping, served from an in-process
+ * map loaded at startup.
+ *
+ * Successful fuzzy matches are learned: they go into the map at once and are
+ * written to 'ingredient_aliases' by a scheduled flush, so matching never
+ * waits on (or fails because of) an insert. Manager edits are applied to the
+ * table and reload the map; the periodic refresh picks up edits and learned
+ * aliases from other nodes. Catalog changes drop the learned aliases they
+ * make stale ({@link #forgetLearned}).
+ */
+@Service
+public class IngredientAliasService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngredientAliasService.class);
+    private static final Pattern PARENTHESIZED = Pattern.compile("\\([^)]*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Value("${app.ingredient-aliases.learn:true}")
+    private boolean learnEnabled;
+
+    private final IngredientAliasRepository aliasRepository;
+    private final ProductRepository productRepository;
+    private final Queue<Map.Entry<String, Long>> pending = new ConcurrentLinkedQueue<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter learned;
+    private volatile Map<String, Long> aliases;
+
+    public IngredientAliasService(IngredientAliasRepository aliasRepository, ProductRepository productRepository,
+            MeterRegistry meterRegistry) {
+        this.aliasRepository = aliasRepository;
+        this.productRepository = productRepository;
+        this.hits = Counter.builder("ingredient.alias.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ingredient.alias.lookups").tag("result", "miss").register(meterRegistry);
+        this.learned = Counter.builder("ingredient.alias.learned").register(meterRegistry);
+        Gauge.builder("ingredient.alias.size", this, IngredientAliasService::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void warmUp() {
+        try {
+            aliases();
+        } catch (DataAccessException e) {
+            log.warn("Ingredient aliases not loaded at startup; retrying on first lookup", e);
+        }
+    }
+
+    /**
+     * Alias key for an ingredient name: lower-cased, without parenthesized
+     * notes or preparation after a comma ("Onions, diced" → "onions"); null
+     * if nothing is left.
+     */
+    public static String normalize(String ingredientName) {
+        if (ingredientName == null)
+            return null;
+        String name = PARENTHESIZED.matcher(ingredientName.toLowerCase()).replaceAll(" ");
+        int comma = name.indexOf(',');
+        if (comma >= 0)
+            name = name.substring(0, comma);
+        name = WHITESPACE.matcher(name).replaceAll(" ").trim();
+        return name.isEmpty() ? null : name;
+    }
+
+    /**
+     * Product id pinned to the normalized name, or null.
+     */
+    public Long lookup(String alias) {
+        Long productId = alias != null ? aliases().get(alias) : null;
+        (productId != null ? hits : misses).increment();
+        return productId;
+    }
+
+    /**
+     * Remembers a fuzzy match; existing aliases are left untouched.
+     */
+    public void learn(String alias, Long productId) {
+        if (!learnEnabled || alias == null || productId == null)
+            return;
+        if (aliases().putIfAbsent(alias, productId) == null) {
+            pending.add(Map.entry(alias, productId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingredient-aliases.flush-ms:10000}")
+    public void flushLearned() {
+        int saved = 0;
+        Map.Entry<String, Long> entry;
+        while ((entry = pending.poll()) != null) {
+            try {
+                if (aliasRepository.existsByAlias(entry.getKey()))
+                    continue;
+                Product product = productRepository.findById(entry.getValue()).orElse(null);
+                if (product == null || !Boolean.TRUE.equals(product.getIsActive()))
+                    continue;
+                aliasRepository.save(new IngredientAlias(entry.getKey(), product, false));
+                saved++;
+            } catch (DataIntegrityViolationException e) {
+                // Learned concurrently on another node; the refresh brings in its mapping
+                log.debug("Alias '{}' already stored", entry.getKey());
+            } catch (DataAccessException e) {
+                log.warn("Could not store learned alias '{}': {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (saved > 0) {
+            learned.increment(saved);
+            log.debug("Stored {} learned ingredient aliases", saved);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingredient-matcher.refresh-ms:300000}",
+            initialDelayString = "${app.ingredient-matcher.refresh-ms:300000}")
+    public void refresh() {
+        if (aliases != null) {
+            aliases = load();
+        }
+    }
+
+    /**
+     * Forgets learned aliases made stale by a catalog change: those pointing
+     * at the product, and those named like it (so a new "Red Onion" product
+     * wins over an earlier fuzzy "red onion" → "Onion"). Manual aliases are
+     * kept. The map is reloaded on the next lookup.
+     *
+     * @param names the product's current and previous names; null entries
+     *              are ignored
+     */
+    public void forgetLearned(Long productId, Collection<String> names) {
+        Set<String> keys = new HashSet<>();
+        for (String name : names) {
+            String key = normalize(name);
+            if (key != null)
+                keys.add(key);
+        }
+        pending.removeIf(entry -> entry.getValue().equals(productId) || keys.contains(entry.getKey()));
+        int removed = aliasRepository.deleteLearnedByProductId(productId);
+        if (!keys.isEmpty())
+            removed += aliasRepository.deleteLearnedByAliasIn(keys);
+        invalidate();
+        log.debug("Forgot {} learned ingredient aliases after a change to product {}", removed, productId);
+    }
+
+    /**
+     * Drops the map; the next lookup reloads it from the table.
+     */
+    public void invalidate() {
+        aliases = null;
+    }
+
+    public List<IngredientAlias> getAll() {
+        return aliasRepository.findAllByOrderByAliasAsc();
+    }
+
+    public IngredientAlias create(String alias, Long productId) {
+        String key = requireAlias(alias);
+        if (aliasRepository.existsByAlias(key)) {
+            throw new IllegalArgumentException("Alias already exists: " + key);
+        }
+        IngredientAlias saved = aliasRepository.save(new IngredientAlias(key, requireProduct(productId), true));
+        invalidate();
+        return saved;
+    }
+
+    /**
+     * Re-points or renames an alias; the row becomes manual so learning never
+     * overrides it.
+     */
+    public IngredientAlias update(Long id, String alias, Long productId) {
+        IngredientAlias existing = aliasRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Alias not found: " + id));
+        if (alias != null) {
+            String key = requireAlias(alias);
+            aliasRepository.findByAlias(key)
+                    .filter(other -> !other.getId().equals(id))
+                    .ifPresent(other -> {
+                        throw new IllegalArgumentException("Alias already exists: " + key);
+                    });
+            existing.setAlias(key);
+        }
+        if (productId != null) {
+            existing.setProduct(requireProduct(productId));
+        }
+        existing.setManual(true);
+        IngredientAlias saved = aliasRepository.save(existing);
+        invalidate();
+        return saved;
+    }
+
+    public void delete(Long id) {
+        if (!aliasRepository.existsById(id)) {
+            throw new IllegalArgumentException("Alias not found: " + id);
+        }
+        aliasRepository.deleteById(id);
+        invalidate();
+    }
+
+    private int size() {
+        Map<String, Long> current = aliases;
+        return current != null ? current.size() : 0;
+    }
+
+    private Map<String, Long> aliases() {
+        Map<String, Long> current = aliases;
+        if (current == null) {
+            synchronized (this) {
+                current = aliases;
+                if (current == null) {
+                    current = load();
+                    aliases = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<String, Long> load() {
+        Map<String, Long> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : aliasRepository.findAllAliasProductPairs()) {
+            loaded.put((String) row[0], (Long) row[1]);
+        }
+        // Learned but not yet flushed
+        for (Map.Entry<String, Long> entry : pending) {
+            loaded.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        log.debug("Loaded {} ingredient aliases", loaded.size());
+        return loaded;
+    }
+
+    private static String requireAlias(String alias) {
+        String key = normalize(alias);
+        if (key == null) {
+            throw new IllegalArgumentException("Alias must not be blank");
+        }
+        return key;
+    }
+
+    private Product requireProduct(Long productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("productId is required");
+        }
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+    }
+}
@@ -0,0 +1,178 @@
+package com.groceryscout.backend.service;
+
+import java.util.*;
+
+/**
+ * Immutable in-memory index over product names for ingredient matching.
+ *
+ * Matching rules (unchanged from the original query-based matcher):
+ * 1. Generic ingredients (water, salt, ice, oil, sugar) never match.
+ * 2. A product whose name contains the whole ingredient name matches; an
+ *    exact name wins, otherwise the lowest product id.
+ * 3. Otherwise each word of at least 4 letters, in order, is tried against
+ *    the start of the words in product names, so "water" can never match
+ *    "watermelon" through a word match.
+ *
+ * Containment is answered from a trigram posting-list index, word prefixes
+ * from a sorted array of name tokens; neither touches the database.
+ */
+public final class IngredientIndex {
+
+    static final Set<String> SKIP_LIST = Set.of("water", "salt", "ice", "oil", "sugar");
+    private static final int MIN_WORD_LENGTH = 4;
+    private static final int[] EMPTY = new int[0];
+
+    private final long[] ids;
+    private final String[] names;
+    private final Map<String, Integer> exact = new HashMap<>();
+    private final Map<Integer, int[]> trigrams;
+    private final String[] tokens;
+    private final int[] tokenProducts;
+
+    /**
+     * @param products (id, name) pairs; names may be null
+     */
+    public IngredientIndex(Map<Long, String> products) {
+        TreeMap<Long, String> byId = new TreeMap<>(products);
+        byId.values().removeIf(Objects::isNull);
+        ids = new long[byId.size()];
+        names = new String[byId.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : byId.entrySet()) {
+            ids[i] = entry.getKey();
+            names[i] = entry.getValue().toLowerCase();
+            exact.putIfAbsent(names[i], i);
+            i++;
+        }
+
+        Map<Integer, List<Integer>> postings = new HashMap<>();
+        List<Map.Entry<String, Integer>> tokenEntries = new ArrayList<>();
+        for (int p = 0; p < names.length; p++) {
+            String name = names[p];
+            Set<Integer> seen = new HashSet<>();
+            for (int c = 0; c + 3 <= name.length(); c++) {
+                int gram = trigram(name, c);
+                if (seen.add(gram))
+                    postings.computeIfAbsent(gram, k -> new ArrayList<>()).add(p);
+            }
+            // Word starts as the original check saw them: position 0 and after each space
+            for (int c = 0; c < name.length(); c++) {
+                if (c == 0 || name.charAt(c - 1) == ' ')
+                    tokenEntries.add(Map.entry(name.substring(c), p));
+            }
+        }
+        trigrams = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, list) -> trigrams.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        tokenEntries.sort(Map.Entry.comparingByKey());
+        tokens = new String[tokenEntries.size()];
+        tokenProducts = new int[tokenEntries.size()];
+        for (int t = 0; t < tokens.length; t++) {
+            tokens[t] = tokenEntries.get(t).getKey();
+            tokenProducts[t] = tokenEntries.get(t).getValue();
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Product id for the ingredient, or null if nothing matches.
+     */
+    public Long match(String ingredientName) {
+        if (ingredientName == null || ingredientName.isBlank())
+            return null;
+        String normalized = ingredientName.toLowerCase().trim();
+        if (SKIP_LIST.contains(normalized))
+            return null;
+
+        int found = containing(normalized);
+        if (found < 0) {
+            for (String word : normalized.split("\\s+")) {
+                if (word.length() >= MIN_WORD_LENGTH && !SKIP_LIST.contains(word)) {
+                    found = wordPrefix(word);
+                    if (found >= 0)
+                        break;
+                }
+            }
+        }
+        return found >= 0 ? ids[found] : null;
+    }
+
+    /**
+     * Matches a whole ingredient list; the result has the same order and
+     * null for unmatched entries.
+     */
+    public List<Long> matchAll(List<String> ingredientNames) {
+        List<Long> result = new ArrayList<>(ingredientNames.size());
+        for (String name : ingredientNames) {
+            result.add(match(name));
+        }
+        return result;
+    }
+
+    private int containing(String query) {
+        Integer exactMatch = exact.get(query);
+        if (exactMatch != null)
+            return exactMatch;
+        if (query.length() < 3) {
+            for (int p = 0; p < names.length; p++) {
+                if (names[p].contains(query))
+                    return p;
+            }
+            return -1;
+        }
+        // Candidates contain every trigram of the query; verify the lowest ids first
+        int[] candidates = null;
+        for (int c = 0; c + 3 <= query.length(); c++) {
+            int[] list = trigrams.getOrDefault(trigram(query, c), EMPTY);
+            candidates = candidates == null ? list : intersect(candidates, list);
+            if (candidates.length == 0)
+                return -1;
+        }
+        for (int p : candidates) {
+            if (names[p].contains(query))
+                return p;
+        }
+        return -1;
+    }
+
+    private int wordPrefix(String word) {
+        int lo = 0, hi = tokens.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tokens[mid].compareTo(word) < 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        int best = -1;
+        for (int t = lo; t < tokens.length && tokens[t].startsWith(word); t++) {
+            if (best < 0 || tokenProducts[t] < best)
+                best = tokenProducts[t];
+        }
+        return best;
+    }
+
+    private static int trigram(String s, int offset) {
+        return (s.charAt(offset) << 16 | s.charAt(offset + 1)) * 31 + s.charAt(offset + 2);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j])
+                i++;
+            else if (a[i] > b[j])
+                j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
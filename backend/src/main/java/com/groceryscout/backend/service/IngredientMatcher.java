@@ -0,0 +1,125 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps recipe ingredient names to catalog products. Known aliases
+ * ({@link IngredientAliasService}) are checked first; the rest go through an
+ * {@link IngredientIndex} built from active product names, and its hits are
+ * learned as new aliases so repeated ingredients resolve the same way every
+ * time.
+ *
+ * The index is built lazily and rebuilt after catalog changes on this node
+ * ({@link #productChanged}) and periodically, to pick up changes made on
+ * other nodes. Matched products are loaded with one findAllById per call, so
+ * callers get current, managed entities.
+ */
+@Component
+public class IngredientMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(IngredientMatcher.class);
+
+    private final ProductRepository productRepository;
+    private final IngredientAliasService aliasService;
+    private volatile IngredientIndex index;
+
+    public IngredientMatcher(ProductRepository productRepository, IngredientAliasService aliasService) {
+        this.productRepository = productRepository;
+        this.aliasService = aliasService;
+    }
+
+    public Product match(String ingredientName) {
+        return matchAll(Collections.singletonList(ingredientName)).get(0);
+    }
+
+    /**
+     * Matches a whole ingredient list; the result has the same order and
+     * null for unmatched entries.
+     */
+    public List<Product> matchAll(List<String> ingredientNames) {
+        List<Long> ids = new ArrayList<>(ingredientNames.size());
+        for (String name : ingredientNames) {
+            String alias = IngredientAliasService.normalize(name);
+            Long id = aliasService.lookup(alias);
+            if (id == null && alias != null) {
+                id = index().match(alias);
+                aliasService.learn(alias, id);
+            }
+            ids.add(id);
+        }
+        Set<Long> distinct = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Product> products = distinct.isEmpty()
+                ? Map.of()
+                : productRepository.findAllById(distinct).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(id != null ? products.get(id) : null);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the index and alias map; the next match rebuilds them.
+     */
+    public void invalidate() {
+        index = null;
+        aliasService.invalidate();
+    }
+
+    /**
+     * A product was created, renamed, (de)activated or deleted: rebuilds the
+     * index and forgets the learned aliases that pointed at the product or
+     * collide with its names, so they are matched afresh against the current
+     * catalog.
+     *
+     * @param names the product's current and previous names
+     */
+    public void productChanged(Long productId, String... names) {
+        index = null;
+        aliasService.forgetLearned(productId, Arrays.asList(names));
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingredient-matcher.refresh-ms:300000}",
+            initialDelayString = "${app.ingredient-matcher.refresh-ms:300000}")
+    public void refresh() {
+        if (index != null) {
+            index = build();
+        }
+    }
+
+    private IngredientIndex index() {
+        IngredientIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = build();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private IngredientIndex build() {
+        long started = System.nanoTime();
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : productRepository.findActiveIdAndName()) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        IngredientIndex built = new IngredientIndex(names);
+        log.debug("Ingredient index built for {} products in {} ms", built.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+}
@@ -0,0 +1,28 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.InventoryUpdateEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Feeds 'inventory.updates' into the in-memory low-stock / back-in-stock
+ * processor.
+ */
+@Service
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = false)
+public class InventoryAlertListener {
+
+    private final InventoryAlertService inventoryAlertService;
+
+    public InventoryAlertListener(InventoryAlertService inventoryAlertService) {
+        this.inventoryAlertService = inventoryAlertService;
+    }
+
+    @KafkaListener(topics = "inventory.updates", groupId = "inventory-alert-group",
+            concurrency = "${app.kafka.concurrency.inventory-updates:3}")
+    public void handleInventoryUpdate(InventoryUpdateEvent event) {
+        inventoryAlertService.onInventoryUpdate(event.getProductId(), event.getProductName(),
+                event.getOldCount(), event.getNewCount());
+    }
+}
@@ -0,0 +1,178 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.entity.StockSubscription;
+import com.groceryscout.backend.entity.User;
+import com.groceryscout.backend.repository.ProductRepository;
+import com.groceryscout.backend.repository.StockAlertStateRepository;
+import com.groceryscout.backend.repository.StockSubscriptionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Low-stock and back-in-stock alerting over 'inventory.updates'.
+ *
+ * The last alerted low/ok state and the time of each product's last alert
+ * are kept in 'stock_alert_state', shared by all nodes: after a consumer
+ * rebalance the new owner of a product's partition continues from the same
+ * state and cooldowns. An alert is sent only after claiming it with one
+ * conditional upsert, which also checks the product's current stock, so
+ * repeated or out-of-order updates and concurrent nodes cannot send it twice.
+ * Alerts fire only on state transitions and at most once per cooldown per
+ * product; a transition held back by the cooldown is found again by the
+ * periodic recheck until it can be sent or is undone by a later update.
+ *
+ * Thresholds are cached in memory so updates that cross no threshold never
+ * touch the database; they are reloaded from 'products' every
+ * app.inventory-alerts.refresh-ms, so a threshold changed on another node
+ * takes effect here within that interval. Subscribers are read from
+ * 'stock_subscriptions' when a restock alert is sent.
+ */
+@Service
+public class InventoryAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryAlertService.class);
+
+    @Value("${app.inventory-alerts.default-threshold:10}")
+    private int defaultThreshold;
+
+    @Value("${app.inventory-alerts.cooldown-ms:600000}")
+    private long cooldownMs;
+
+    private final ProductRepository productRepository;
+    private final StockSubscriptionRepository stockSubscriptionRepository;
+    private final StockAlertStateRepository stockAlertStateRepository;
+    private final KafkaEventService kafkaEventService;
+    private final ManagerEventStream managerEventStream;
+
+    private volatile Map<Long, Integer> thresholds = new ConcurrentHashMap<>();
+    // Serializes threshold reloads with single-product updates so a reload cannot drop a newer value
+    private final Object thresholdsLock = new Object();
+
+    public InventoryAlertService(ProductRepository productRepository,
+            StockSubscriptionRepository stockSubscriptionRepository,
+            StockAlertStateRepository stockAlertStateRepository, KafkaEventService kafkaEventService,
+            ManagerEventStream managerEventStream) {
+        this.productRepository = productRepository;
+        this.stockSubscriptionRepository = stockSubscriptionRepository;
+        this.stockAlertStateRepository = stockAlertStateRepository;
+        this.kafkaEventService = kafkaEventService;
+        this.managerEventStream = managerEventStream;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        refreshThresholds();
+        int seeded = stockAlertStateRepository.seedMissing(defaultThreshold);
+        log.info("Inventory alerts warmed: {} custom thresholds, {} products given an initial alert state",
+                thresholds.size(), seeded);
+    }
+
+    /**
+     * Picks up thresholds changed through other nodes. Holding the lock
+     * across the read means an {@link #updateThreshold} call either lands
+     * before it (and its committed value is read) or after the swap.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory-alerts.refresh-ms:60000}",
+            initialDelayString = "${app.inventory-alerts.refresh-ms:60000}")
+    public void refreshThresholds() {
+        synchronized (thresholdsLock) {
+            Map<Long, Integer> loaded = new ConcurrentHashMap<>();
+            for (Object[] row : productRepository.findStockLevels()) {
+                if (row[1] != null)
+                    loaded.put((Long) row[0], (Integer) row[1]);
+            }
+            thresholds = loaded;
+        }
+    }
+
+    /**
+     * Applies one inventory change and emits an alert if it crosses the
+     * product's threshold.
+     */
+    public void onInventoryUpdate(Long productId, String productName, int oldCount, int newCount) {
+        int threshold = thresholdFor(productId);
+        boolean isLow = newCount <= threshold;
+        if (isLow == oldCount <= threshold) {
+            // No crossing; anything this misses is picked up by recheckPending
+            return;
+        }
+        emit(productId, productName, newCount, threshold, isLow, LocalDateTime.now());
+    }
+
+    /**
+     * Sends transitions that were held back by the cooldown once it expires,
+     * and any the update path missed, by comparing current stock with the
+     * alerted state.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory-alerts.recheck-ms:30000}")
+    public void recheckPending() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : stockAlertStateRepository.findUnalerted(defaultThreshold)) {
+            int count = ((Number) row[2]).intValue();
+            int threshold = ((Number) row[3]).intValue();
+            emit(((Number) row[0]).longValue(), (String) row[1], count, threshold, count <= threshold, now);
+        }
+    }
+
+    /**
+     * Called after the product has been saved.
+     */
+    public void updateThreshold(Long productId, Integer threshold) {
+        synchronized (thresholdsLock) {
+            if (threshold == null) {
+                thresholds.remove(productId);
+            } else {
+                thresholds.put(productId, threshold);
+            }
+        }
+    }
+
+    @Transactional
+    public void subscribe(User user, Product product) {
+        if (!stockSubscriptionRepository.existsByUserIdAndProductId(user.getId(), product.getId())) {
+            stockSubscriptionRepository.save(new StockSubscription(user, product));
+        }
+    }
+
+    @Transactional
+    public void unsubscribe(Long userId, Long productId) {
+        stockSubscriptionRepository.deleteByUserIdAndProductId(userId, productId);
+    }
+
+    /**
+     * Sends the alert if it can be claimed: stock is still on that side of
+     * the threshold, the state changes, and the product is out of cooldown.
+     */
+    private void emit(Long productId, String productName, int count, int threshold, boolean low,
+            LocalDateTime now) {
+        if (stockAlertStateRepository.claimAlert(productId, low, defaultThreshold, now,
+                now.minus(Duration.ofMillis(cooldownMs))) == 0) {
+            log.debug("Not alerting for Product ID {} (already alerted, stock moved on, or cooldown)", productId);
+            return;
+        }
+        if (low) {
+            kafkaEventService.sendLowStock(productId, productName, count, threshold);
+            managerEventStream.publish("inventory-low", Map.of(
+                    "productId", productId, "productName", productName, "count", count, "threshold", threshold));
+        } else {
+            List<Long> recipients = stockSubscriptionRepository.findUserIdsByProductId(productId);
+            kafkaEventService.sendRestocked(productId, productName, count, recipients);
+        }
+    }
+
+    private int thresholdFor(Long productId) {
+        return thresholds.getOrDefault(productId, defaultThreshold);
+    }
+}
@@ -1,79 +1,72 @@
 package com.groceryscout.backend.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.groceryscout.backend.dto.OrderEvent;
-import com.groceryscout.backend.entity.Product;
-import com.groceryscout.backend.repository.ProductRepository;
+import com.groceryscout.backend.dto.StockDeductionEvent;
 
 import lombok.RequiredArgsConstructor;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.LinkedHashMap;
-import java.util.Optional;
 
+/**
+ * Inventory pipeline.
+ * 1. orders.created — bumps trending scores and splits the order into one
+ *    'inventory.deductions' work unit per product, keyed by productId
+ * 2. inventory.deductions — applies each unit; partitions (and therefore
+ *    listener threads and nodes) each own a disjoint set of products
+ *
+ * Failures are retried through non-blocking retry topics with exponential
+ * backoff, so a stalled database never blocks the main partition. Records
+ * that exhaust their attempts (or fail with a non-retryable error) land on
+ * the topic's '-dlt' and can be inspected and replayed via DeadLetterService.
+ */
 @Service
 @RequiredArgsConstructor
 @ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = false)
 public class InventoryEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryEventListener.class);
-    private final ProductRepository productRepository;
-    private final ObjectMapper objectMapper;
-    private final TrendingService trendingService;
-
-    @KafkaListener(topics = "orders.created", groupId = "inventory-group")
-    @Transactional
-    public void handleOrderCreated(Object message) {
-        try {
-            OrderEvent event;
-            // Handle different deserialization cases (LinkedHashMap vs Typed Object)
-            if (message instanceof LinkedHashMap) {
-                event = objectMapper.convertValue(message, OrderEvent.class);
-            } else if (message instanceof OrderEvent) {
-                event = (OrderEvent) message;
-            } else {
-                log.warn("Unknown message type received: {}", message.getClass());
-                return;
-            }
-
-            log.info("Received 'orders.created' for Order ID: {}. Updating inventory...",
-                    event.getOrderId());
+    private final InventoryService inventoryService;
 
-            for (OrderEvent.OrderItemDto item : event.getItems()) {
-                // Update Trending Score
-                trendingService.incrementProductPopularity(item.getProductId());
-
-                Optional<Product> productOpt = productRepository.findById(item.getProductId());
-                if (productOpt.isPresent()) {
-                    Product product = productOpt.get();
-                    int newStock = product.getInventoryCount() - item.getQuantity();
+    @RetryableTopic(attempts = "${app.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${app.kafka.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${app.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${app.kafka.retry.max-delay-ms:30000}"),
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR)
+    @KafkaListener(topics = "orders.created", groupId = "inventory-group",
+            concurrency = "${app.kafka.concurrency.orders-created:3}")
+    public void handleOrderCreated(OrderEvent event) {
+        inventoryService.onOrderCreated(event);
+    }
 
-                    // Basic check, though OrderService likely checked this too.
-                    // In a real distributed system, we'd handle race conditions here or via
-                    // optimistic locking.
-                    if (newStock < 0) {
-                        log.warn("Stock went negative for Product ID: {}", product.getId());
-                        newStock = 0;
-                    }
+    @RetryableTopic(attempts = "${app.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${app.kafka.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${app.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${app.kafka.retry.max-delay-ms:30000}"),
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR)
+    @KafkaListener(topics = "inventory.deductions", groupId = "inventory-group",
+            concurrency = "${app.kafka.concurrency.inventory-deductions:3}")
+    public void handleStockDeduction(StockDeductionEvent event) {
+        inventoryService.applyDeduction(event);
+    }
 
-                    product.setInventoryCount(newStock);
-                    productRepository.save(product);
-                    log.info("Updated stock for Product ID {}: {} -> {}", product.getId(),
-                            product.getInventoryCount() + item.getQuantity(), newStock);
-                } else {
-                    log.error("Product ID {} not found in inventory update!",
-                            item.getProductId());
-                    // Do NOT throw exception to avoid infinite retry loop for bad data
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error processing inventory update for message: {}", message, e);
-        }
+    @DltHandler
+    public void handleDeadLetter(ConsumerRecord<String, Object> record,
+            @Header(KafkaHeaders.DLT_EXCEPTION_MESSAGE) String error) {
+        log.error("Inventory event parked on {} (key {}, offset {}): {}", record.topic(), record.key(),
+                record.offset(), error);
     }
 }
@@ -0,0 +1,124 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.dto.StockDeductionEvent;
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Applies asynchronous stock deductions for placed orders.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+    private final ProductRepository productRepository;
+    private final KafkaEventService kafkaEventService;
+    private final TrendingService trendingService;
+    private final ProcessedEventService processedEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final LogSampler logSampler;
+
+    public InventoryService(ProductRepository productRepository, KafkaEventService kafkaEventService,
+            TrendingService trendingService, ProcessedEventService processedEventService,
+            TransactionTemplate transactionTemplate, @Value("${app.logging.sample-rate:100}") int logSampleRate) {
+        this.logSampler = new LogSampler(logSampleRate);
+        this.productRepository = productRepository;
+        this.kafkaEventService = kafkaEventService;
+        this.trendingService = trendingService;
+        this.processedEventService = processedEventService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Bumps trending scores and fans the order out to 'inventory.deductions'.
+     * Safe to redeliver: the trending increment is guarded by the
+     * processed-events ledger and deduction units are idempotent, while a
+     * failed send is thrown so the order is retried.
+     */
+    public void onOrderCreated(OrderEvent event) {
+        if (log.isDebugEnabled() && logSampler.sample()) {
+            log.debug("Received 'orders.created' for Order ID: {}. Splitting into {} stock deductions...",
+                    event.getOrderId(), event.getItems().size());
+        }
+
+        countTowardsTrending(event);
+        kafkaEventService.sendStockDeductions(splitOrder(event));
+    }
+
+    /**
+     * Increments trending scores once per order. The ledger entry commits
+     * only after Redis accepted the increments, so a Redis failure leaves the
+     * order to be counted on retry.
+     */
+    private void countTowardsTrending(OrderEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            String key = ProcessedEventService.trendingKey(event.getOrderId());
+            if (!processedEventService.markProcessed(key, event.getOrderId()))
+                return;
+            trendingService.incrementProductPopularity(event.getOrderId(), event.getItems().stream()
+                    .map(OrderEvent.OrderItemDto::getProductId)
+                    .toList());
+        });
+    }
+
+    /**
+     * Splits an order into one deduction unit per product line.
+     */
+    public List<StockDeductionEvent> splitOrder(OrderEvent event) {
+        return event.getItems().stream()
+                .map(item -> new StockDeductionEvent(event.getOrderId(), item.getProductId(), item.getQuantity()))
+                .toList();
+    }
+
+    /**
+     * Applies one deduction unit at most once: the unit is recorded in the
+     * processed-events ledger in the same transaction as the stock change, so
+     * rebalances, retries and DLT replays cannot deduct twice.
+     */
+    @Transactional
+    public void applyDeduction(StockDeductionEvent event) {
+        String key = ProcessedEventService.deductionKey(event.getOrderId(), event.getProductId());
+        if (!processedEventService.markProcessed(key, event.getOrderId())) {
+            if (log.isDebugEnabled() && logSampler.sample()) {
+                log.debug("Skipping already applied deduction {} (Order ID: {})", key, event.getOrderId());
+            }
+            return;
+        }
+
+        Optional<Product> productOpt = productRepository.findById(event.getProductId());
+        if (productOpt.isEmpty()) {
+            log.error("Product ID {} not found in inventory update!", event.getProductId());
+            // Do NOT throw exception to avoid infinite retry loop for bad data
+            return;
+        }
+
+        Product product = productOpt.get();
+        int previousStock = product.getInventoryCount();
+        int newStock = previousStock - event.getQuantity();
+
+        // Basic check, though OrderService likely checked this too. Deductions
+        // for one product are serialized by partitioning on productId.
+        if (newStock < 0) {
+            log.warn("Stock went negative for Product ID: {}", product.getId());
+            newStock = 0;
+        }
+
+        product.setInventoryCount(newStock);
+        productRepository.save(product);
+        if (log.isDebugEnabled() && logSampler.sample()) {
+            log.debug("Updated stock for Product ID {}: {} -> {} (Order ID: {})", product.getId(), previousStock,
+                    newStock, event.getOrderId());
+        }
+        kafkaEventService.sendInventoryUpdate(product.getId(), product.getName(), previousStock, newStock);
+    }
+}
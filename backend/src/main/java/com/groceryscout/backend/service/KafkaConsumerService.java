@@ -1,13 +1,16 @@
 package com.groceryscout.backend.service;
 
-import com.groceryscout.backend.entity.AuditLog;
-import com.groceryscout.backend.repository.AuditLogRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Kafka consumer service.
  * Active only when kafka.enabled=true in application.properties.
@@ -16,47 +19,59 @@ import org.springframework.stereotype.Service;
  * 1. notifications.email — logs order status changes to audit_log table
  * 2. recipes.generated — logs recipe generation events
  * 3. inventory.updates — logs inventory changes when orders are delivered
+ *
+ * Each listener consumes a whole poll and writes it with one multi-row
+ * insert; offsets are committed only after the insert succeeds.
  */
 @Service
 @ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = false)
 public class KafkaConsumerService {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaConsumerService.class);
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogService auditLogService;
+    private final LogSampler logSampler;
 
-    public KafkaConsumerService(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    public KafkaConsumerService(AuditLogService auditLogService,
+            @Value("${app.logging.sample-rate:100}") int logSampleRate) {
+        this.auditLogService = auditLogService;
+        this.logSampler = new LogSampler(logSampleRate);
         log.info(
                 "KafkaConsumerService initialized — listeners active on: notifications.email, recipes.generated, inventory.updates");
     }
 
-    @KafkaListener(topics = "notifications.email", groupId = "grocery-scout-group")
-    public void handleOrderStatusChanged(String message) {
-        log.info("📧 [Kafka] Received ORDER_STATUS_CHANGED: {}", message);
-        AuditLog auditLog = new AuditLog();
-        auditLog.setEventType("ORDER_STATUS_CHANGED");
-        auditLog.setPayload(message);
-        auditLogRepository.save(auditLog);
-        log.info("📧 [Kafka] Saved audit log. In production, this would trigger an email notification.");
+    @KafkaListener(topics = "notifications.email", groupId = "grocery-scout-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleOrderStatusChanged(List<ConsumerRecord<String, Object>> records) {
+        int saved = auditLogService.recordEvents("ORDER_STATUS_CHANGED", values(records));
+        logSaved("ORDER_STATUS_CHANGED", saved);
+    }
+
+    @KafkaListener(topics = "recipes.generated", groupId = "grocery-scout-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleRecipeGenerated(List<ConsumerRecord<String, Object>> records) {
+        int saved = auditLogService.recordEvents("RECIPE_GENERATED", values(records));
+        logSaved("RECIPE_GENERATED", saved);
+    }
+
+    @KafkaListener(topics = "inventory.updates", groupId = "grocery-scout-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            concurrency = "${app.kafka.concurrency.inventory-updates:3}")
+    public void handleInventoryUpdate(List<ConsumerRecord<String, Object>> records) {
+        int saved = auditLogService.recordEvents("INVENTORY_UPDATE", values(records));
+        logSaved("INVENTORY_UPDATE", saved);
     }
 
-    @KafkaListener(topics = "recipes.generated", groupId = "grocery-scout-group")
-    public void handleRecipeGenerated(String message) {
-        log.info("🍳 [Kafka] Received RECIPE_GENERATED: {}", message);
-        AuditLog auditLog = new AuditLog();
-        auditLog.setEventType("RECIPE_GENERATED");
-        auditLog.setPayload(message);
-        auditLogRepository.save(auditLog);
-        log.info("🍳 [Kafka] Saved audit log. In production, this would update trending ingredients cache.");
+    private void logSaved(String eventType, int saved) {
+        if (log.isDebugEnabled() && logSampler.sample()) {
+            log.debug("Saved {} {} audit logs", saved, eventType);
+        }
     }
 
-    @KafkaListener(topics = "inventory.updates", groupId = "grocery-scout-group")
-    public void handleInventoryUpdate(String message) {
-        log.info("📦 [Kafka] Received INVENTORY_UPDATE: {}", message);
-        AuditLog auditLog = new AuditLog();
-        auditLog.setEventType("INVENTORY_UPDATE");
-        auditLog.setPayload(message);
-        auditLogRepository.save(auditLog);
-        log.info("📦 [Kafka] Saved audit log for inventory change.");
+    private List<Object> values(List<ConsumerRecord<String, Object>> records) {
+        List<Object> values = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Object> record : records) {
+            values.add(record.value());
+        }
+        return values;
     }
 }
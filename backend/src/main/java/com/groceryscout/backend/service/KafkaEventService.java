@@ -1,59 +1,249 @@
 package com.groceryscout.backend.service;
 
+import com.groceryscout.backend.dto.InventoryUpdateEvent;
+import com.groceryscout.backend.dto.LowStockEvent;
 import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.dto.OrderStatusEvent;
+import com.groceryscout.backend.dto.RecipeGeneratedEvent;
+import com.groceryscout.backend.dto.RestockEvent;
+import com.groceryscout.backend.dto.StockDeductionEvent;
+import com.groceryscout.backend.event.LocalEventLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Publishes domain events to Kafka.
+ * Events are keyed by the entity they concern (orderId, productId, recipeId)
+ * so per-entity ordering holds across partitions.
+ *
+ * Every send is instrumented with a per-topic latency timer and error
+ * counter via the returned future. When the send buffer is enabled, events
+ * are handed to a bounded in-memory queue drained by a background thread, so
+ * a broker hiccup (metadata wait, full producer buffer) never blocks the
+ * request thread; overflow is dropped and counted. Stock deductions are the
+ * exception: they are sent synchronously and failures are thrown, see
+ * {@link #sendStockDeductions}.
+ *
+ * With Kafka disabled, events are appended to the embedded LocalEventLog
+ * instead, so in-process consumers still see every event.
+ */
 @Service
 public class KafkaEventService {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaEventService.class);
+    private static final long DRAIN_JOIN_TIMEOUT_MS = 10_000;
 
     @Autowired(required = false)
     private KafkaTemplate<String, Object> kafkaTemplate;
 
-    public void sendOrderCreated(OrderEvent event) {
-        if (kafkaTemplate == null) {
-            log.warn("Kafka is not available. Skipping 'orders.created' event for Order ID: {}", event.getOrderId());
+    @Autowired(required = false)
+    private LocalEventLog localEventLog;
+
+    @Value("${app.kafka.producer.buffer.enabled:false}")
+    private boolean bufferEnabled;
+
+    @Value("${app.kafka.producer.buffer.capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${app.kafka.producer.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final MeterRegistry meterRegistry;
+    private BlockingQueue<PendingSend> buffer;
+    private Thread drainThread;
+
+    public KafkaEventService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void startBuffer() {
+        if (!bufferEnabled || kafkaTemplate == null)
             return;
-        }
-        log.info("Sending 'orders.created' event for Order ID: {}", event.getOrderId());
-        kafkaTemplate.send("orders.created", event);
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        meterRegistry.gaugeCollectionSize("kafka.producer.buffer.size", List.of(), buffer);
+        drainThread = new Thread(this::drainBuffer, "kafka-send-buffer");
+        drainThread.setDaemon(true);
+        drainThread.start();
     }
 
-    public void sendOrderStatusChanged(Long orderId, String oldStatus, String newStatus) {
-        if (kafkaTemplate == null) {
-            log.warn("Kafka is not available. Skipping 'notifications.email' event for Order ID: {}", orderId);
+    /**
+     * Stops the drain thread and sends what is left in the buffer from this
+     * thread, so nothing queued before shutdown is lost.
+     */
+    @PreDestroy
+    void stopBuffer() throws InterruptedException {
+        if (drainThread == null)
             return;
+        drainThread.interrupt();
+        // A send in flight may block for up to max.block.ms before the thread sees the interrupt
+        drainThread.join(DRAIN_JOIN_TIMEOUT_MS);
+        if (drainThread.isAlive()) {
+            log.warn("Kafka send buffer thread did not stop within {} ms", DRAIN_JOIN_TIMEOUT_MS);
         }
-        log.info("Sending 'notifications.email' for Order Status Change");
-        kafkaTemplate.send("notifications.email", Map.of("orderId", orderId, "status", newStatus));
+        PendingSend pending;
+        while ((pending = buffer.poll()) != null) {
+            doSend(pending);
+        }
+        kafkaTemplate.flush();
+    }
+
+    public void sendOrderCreated(OrderEvent event) {
+        log.debug("Sending 'orders.created' event for Order ID: {}", event.getOrderId());
+        publish("orders.created", String.valueOf(event.getOrderId()), event);
+    }
+
+    public void sendOrderStatusChanged(Long orderId, Long userId, String oldStatus, String newStatus) {
+        log.debug("Sending 'notifications.email' for Order Status Change");
+        publish("notifications.email", String.valueOf(orderId),
+                new OrderStatusEvent(orderId, oldStatus, newStatus, userId));
     }
 
     public void sendRecipeGenerated(Long recipeId, String ingredientsCsv) {
+        log.debug("Sending 'recipes.generated' event for Recipe ID: {}", recipeId);
+        publish("recipes.generated", String.valueOf(recipeId), new RecipeGeneratedEvent(recipeId, ingredientsCsv));
+    }
+
+    public void sendInventoryUpdate(Long productId, String productName, int oldCount, int newCount) {
+        log.debug("Sending 'inventory.updates' event: {} ({} → {})", productName, oldCount, newCount);
+        publish("inventory.updates", String.valueOf(productId),
+                new InventoryUpdateEvent(productId, productName, oldCount, newCount));
+    }
+
+    public void sendLowStock(Long productId, String productName, int count, int threshold) {
+        log.debug("Sending 'inventory.low' event for Product ID: {} ({} <= {})", productId, count, threshold);
+        publish("inventory.low", String.valueOf(productId),
+                new LowStockEvent(productId, productName, count, threshold));
+    }
+
+    public void sendRestocked(Long productId, String productName, int count, List<Long> subscriberIds) {
+        log.debug("Sending 'inventory.restocked' event for Product ID: {} to {} subscribers", productId,
+                subscriberIds.size());
+        publish("inventory.restocked", String.valueOf(productId),
+                new RestockEvent(productId, productName, count, subscriberIds));
+    }
+
+    /**
+     * Sends deduction units and waits until the broker has acknowledged all
+     * of them, bypassing the send buffer. A failure or timeout is thrown, so
+     * the calling consumer retries (and eventually dead-letters) the order
+     * instead of silently losing a stock deduction.
+     *
+     * @throws KafkaException if any unit could not be sent within
+     *                        app.kafka.producer.send-timeout-ms
+     */
+    public void sendStockDeductions(List<StockDeductionEvent> events) {
+        String topic = "inventory.deductions";
         if (kafkaTemplate == null) {
-            log.warn("Kafka is not available. Skipping 'recipes.generated' event for Recipe ID: {}", recipeId);
+            if (localEventLog == null) {
+                log.warn("Kafka is not available. Skipping {} '{}' events", events.size(), topic);
+                return;
+            }
+            events.forEach(event -> localEventLog.append(topic, event));
             return;
         }
-        log.info("Sending 'recipes.generated' event for Recipe ID: {}", recipeId);
-        kafkaTemplate.send("recipes.generated", Map.of("recipeId", recipeId, "ingredients", ingredientsCsv));
+        CompletableFuture<?>[] sends = events.stream()
+                .map(event -> send(new PendingSend(topic, String.valueOf(event.getProductId()), event)))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while sending '" + topic + "' events", e);
+        } catch (ExecutionException e) {
+            throw new KafkaException("Failed to send '" + topic + "' events", e.getCause());
+        } catch (TimeoutException e) {
+            throw new KafkaException("Timed out after " + sendTimeoutMs + " ms sending '" + topic + "' events", e);
+        }
     }
 
-    public void sendInventoryUpdate(Long productId, String productName, int oldCount, int newCount) {
+    private void publish(String topic, String key, Object payload) {
         if (kafkaTemplate == null) {
-            log.warn("Kafka is not available. Skipping 'inventory.updates' event for Product: {}", productName);
+            if (localEventLog != null) {
+                try {
+                    localEventLog.append(topic, payload);
+                } catch (RuntimeException e) {
+                    log.error("Failed to append '{}' event to the local event log", topic, e);
+                }
+            } else {
+                log.warn("Kafka is not available. Skipping '{}' event (key {})", topic, key);
+            }
             return;
         }
-        log.info("Sending 'inventory.updates' event: {} ({} → {})", productName, oldCount, newCount);
-        kafkaTemplate.send("inventory.updates", Map.of(
-                "productId", productId,
-                "productName", productName,
-                "oldCount", oldCount,
-                "newCount", newCount));
+        PendingSend pending = new PendingSend(topic, key, payload);
+        if (buffer == null) {
+            doSend(pending);
+            return;
+        }
+        if (!buffer.offer(pending)) {
+            Counter.builder("kafka.producer.dropped").tag("topic", topic).register(meterRegistry).increment();
+            log.warn("Kafka send buffer full ({}), dropping '{}' event", bufferCapacity, topic);
+        }
+    }
+
+    private void doSend(PendingSend pending) {
+        send(pending).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.error("Failed to send '{}' event", pending.topic(), ex);
+            }
+        });
+    }
+
+    /**
+     * Sends with latency and error metrics; failures before the record is
+     * queued (serialization, max.block.ms) complete the future exceptionally.
+     */
+    private CompletableFuture<?> send(PendingSend pending) {
+        long start = System.nanoTime();
+        try {
+            return kafkaTemplate.send(pending.topic(), pending.key(), pending.payload())
+                    .whenComplete((result, ex) -> recordLatency(pending.topic(), start, ex == null));
+        } catch (Exception e) {
+            recordLatency(pending.topic(), start, false);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordLatency(String topic, long startNanos, boolean success) {
+        Timer.builder("kafka.producer.send")
+                .tag("topic", topic)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            Counter.builder("kafka.producer.errors").tag("topic", topic).register(meterRegistry).increment();
+        }
+    }
+
+    private void drainBuffer() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                doSend(buffer.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record PendingSend(String topic, String key, Object payload) {
     }
 }
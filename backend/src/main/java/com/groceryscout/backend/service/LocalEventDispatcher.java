@@ -0,0 +1,91 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.InventoryUpdateEvent;
+import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.dto.StockDeductionEvent;
+import com.groceryscout.backend.event.LocalEventLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * In-process counterpart of the Kafka listeners when kafka.enabled=false.
+ * Subscribes the same processors, under the same group names, to the
+ * LocalEventLog so edge stores keep trending, inventory, alerts,
+ * recommendations, audit and the manager feed without a broker.
+ */
+@Service
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalEventDispatcher.class);
+    private final LocalEventLog eventLog;
+    private final InventoryService inventoryService;
+    private final CoPurchaseService coPurchaseService;
+    private final InventoryAlertService inventoryAlertService;
+    private final AuditLogService auditLogService;
+    private final ManagerEventStream managerEventStream;
+
+    public LocalEventDispatcher(LocalEventLog eventLog, InventoryService inventoryService,
+            CoPurchaseService coPurchaseService, InventoryAlertService inventoryAlertService,
+            AuditLogService auditLogService, ManagerEventStream managerEventStream) {
+        this.eventLog = eventLog;
+        this.inventoryService = inventoryService;
+        this.coPurchaseService = coPurchaseService;
+        this.inventoryAlertService = inventoryAlertService;
+        this.auditLogService = auditLogService;
+        this.managerEventStream = managerEventStream;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // One event at a time: a failure must not re-apply the events around it
+        eventLog.subscribeEach("orders.created", "inventory-group",
+                each(OrderEvent.class, inventoryService::onOrderCreated));
+        eventLog.subscribeEach("inventory.deductions", "inventory-group",
+                each(StockDeductionEvent.class, inventoryService::applyDeduction));
+        // Resume where the restored co-purchase snapshot ends
+        eventLog.subscribeEach("orders.created", "recommendation-group",
+                coPurchaseService.position(CoPurchaseService.LOCAL_SOURCE),
+                eachWithOffset(OrderEvent.class,
+                        (order, offset) -> coPurchaseService.recordOrder(order, CoPurchaseService.LOCAL_SOURCE, offset)));
+        eventLog.subscribeEach("inventory.updates", "inventory-alert-group",
+                each(InventoryUpdateEvent.class, e -> inventoryAlertService.onInventoryUpdate(e.getProductId(),
+                        e.getProductName(), e.getOldCount(), e.getNewCount())));
+
+        // Audit batches are inserted in one transaction, so they can be retried whole
+        eventLog.subscribe("notifications.email", "grocery-scout-group",
+                batch -> auditLogService.recordEvents("ORDER_STATUS_CHANGED", batch));
+        eventLog.subscribe("recipes.generated", "grocery-scout-group",
+                batch -> auditLogService.recordEvents("RECIPE_GENERATED", batch));
+        eventLog.subscribe("inventory.updates", "grocery-scout-group",
+                batch -> auditLogService.recordEvents("INVENTORY_UPDATE", batch));
+
+        // Live dashboard feed only needs new events
+        eventLog.subscribeEach("orders.created", null,
+                (event, offset) -> managerEventStream.publishDomainEvent(event));
+        eventLog.subscribeEach("notifications.email", null,
+                (event, offset) -> managerEventStream.publishDomainEvent(event));
+        log.info("Local event dispatch started (Kafka disabled)");
+    }
+
+    private static <T> LocalEventLog.EventHandler each(Class<T> type, Consumer<T> handler) {
+        return eachWithOffset(type, (event, offset) -> handler.accept(event));
+    }
+
+    private static <T> LocalEventLog.EventHandler eachWithOffset(Class<T> type, ObjLongConsumer<T> handler) {
+        return (event, offset) -> {
+            if (type.isInstance(event)) {
+                handler.accept(type.cast(event), offset);
+            } else {
+                log.warn("Unexpected {} at offset {} on local event log", event.getClass().getSimpleName(), offset);
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.groceryscout.backend.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets one in every {@code rate} calls through, for DEBUG logging on
+ * per-message paths. Callers check {@code log.isDebugEnabled()} first so the
+ * counter is only touched when the line could actually be written.
+ */
+public final class LogSampler {
+
+    private final int rate;
+    private final AtomicLong calls = new AtomicLong();
+
+    public LogSampler(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    public boolean sample() {
+        return rate == 1 || calls.getAndIncrement() % rate == 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.groceryscout.backend.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single shared subscription behind the manager SSE stream.
+ * Each instance assigns itself every partition, without a consumer group, so
+ * every node sees every event and can fan it out to its locally connected
+ * dashboards. Nothing is committed: a restarted node starts from the latest
+ * offsets, and no per-node groups are left behind on the broker.
+ */
+@Service
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = false)
+public class ManagerEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagerEventListener.class);
+    private final ManagerEventStream managerEventStream;
+
+    public ManagerEventListener(ManagerEventStream managerEventStream) {
+        this.managerEventStream = managerEventStream;
+    }
+
+    @KafkaListener(containerFactory = "broadcastKafkaListenerContainerFactory",
+            topicPartitions = {
+                    @TopicPartition(topic = "orders.created",
+                            partitions = "#{@partitionFinder.partitions('orders.created')}"),
+                    @TopicPartition(topic = "notifications.email",
+                            partitions = "#{@partitionFinder.partitions('notifications.email')}") },
+            properties = { "auto.offset.reset=latest" })
+    public void handle(ConsumerRecord<String, Object> record) {
+        if (!managerEventStream.publishDomainEvent(record.value())) {
+            log.warn("Unknown message type received on {}: {}", record.topic(), record.value());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.dto.OrderStatusEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events fan-out for the manager dashboard.
+ *
+ * One shared Kafka subscription publishes into this stream; each connected
+ * client gets a bounded buffer drained by a small sender pool, so a slow tab
+ * only loses its own oldest events and never blocks the publisher. Dashboard
+ * counters are recomputed at most once per interval and only when something
+ * changed, instead of once per polling tab.
+ */
+@Service
+public class ManagerEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagerEventStream.class);
+
+    @Value("${app.manager-events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.manager-events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final OrderService orderService;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final AtomicBoolean statsDirty = new AtomicBoolean(true);
+    private volatile Map<String, Object> latestStats;
+
+    public ManagerEventStream(OrderService orderService,
+            @Value("${app.manager-events.sender-threads:2}") int senderThreads) {
+        this.orderService = orderService;
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "manager-sse-sender");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Registers a new dashboard client and primes it with the latest counters.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Client client = new Client(emitter, bufferSize);
+        clients.add(client);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+
+        Map<String, Object> stats = latestStats;
+        if (stats == null) {
+            stats = orderService.getDashboardStats();
+            latestStats = stats;
+        }
+        enqueue(client, "stats", stats);
+        return emitter;
+    }
+
+    /**
+     * Pushes an event to every connected client without blocking the caller.
+     */
+    public void publish(String eventName, Object data) {
+        for (Client client : clients) {
+            enqueue(client, eventName, data);
+        }
+    }
+
+    /**
+     * Maps an order event to its dashboard event and marks counters stale.
+     *
+     * @return false if the event is not relevant to the dashboard
+     */
+    public boolean publishDomainEvent(Object event) {
+        if (event instanceof OrderEvent order) {
+            int itemCount = order.getItems() != null ? order.getItems().size() : 0;
+            publish("order-created",
+                    Map.of("orderId", order.getOrderId(), "userId", order.getUserId(), "itemCount", itemCount));
+        } else if (event instanceof OrderStatusEvent status) {
+            publish("order-status", status);
+        } else {
+            return false;
+        }
+        markStatsDirty();
+        return true;
+    }
+
+    /**
+     * Marks dashboard counters stale; they are refreshed on the next tick.
+     */
+    public void markStatsDirty() {
+        statsDirty.set(true);
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.manager-events.stats-interval-ms:2000}")
+    public void refreshStats() {
+        if (clients.isEmpty() || !statsDirty.getAndSet(false))
+            return;
+        try {
+            latestStats = orderService.getDashboardStats();
+            publish("stats", latestStats);
+        } catch (Exception e) {
+            statsDirty.set(true);
+            log.warn("Failed to refresh dashboard stats for SSE clients", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.manager-events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        publish("heartbeat", System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        clients.forEach(c -> c.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void enqueue(Client client, String eventName, Object data) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(eventName).data(data);
+        while (!client.buffer.offer(event)) {
+            // Buffer full: drop the oldest event for this client only
+            if (client.buffer.poll() != null) {
+                client.dropped.incrementAndGet();
+            }
+        }
+        if (client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = client.buffer.poll()) != null) {
+                long dropped = client.dropped.getAndSet(0);
+                if (dropped > 0) {
+                    // Tell the client it missed events so it can refetch
+                    client.emitter.send(SseEmitter.event().name("resync").data(dropped));
+                }
+                client.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            clients.remove(client);
+            client.buffer.clear();
+            log.debug("Dropping disconnected SSE client: {}", e.getMessage());
+        } finally {
+            client.draining.set(false);
+        }
+        // Re-check in case an event arrived after the last poll
+        if (!client.buffer.isEmpty() && clients.contains(client) && client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private static final class Client {
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> buffer;
+        final AtomicBoolean draining = new AtomicBoolean(false);
+        final AtomicLong dropped = new AtomicLong();
+
+        Client(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
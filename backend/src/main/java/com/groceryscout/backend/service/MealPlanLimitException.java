@@ -0,0 +1,12 @@
+package com.groceryscout.backend.service;
+
+/**
+ * The user already has app.meal-plan.max-per-user meal plans in flight.
+ * Mapped to 429 so the client retries once the running plan finishes.
+ */
+public class MealPlanLimitException extends RuntimeException {
+
+    public MealPlanLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,175 @@
+package com.groceryscout.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Local {@link RecipeGenerator} for load tests, benchmarks and development
+ * without the Gemini API.
+ *
+ * Output is deterministic: the same prompt and servings always produce the
+ * same recipe, drawn from ingredients that exercise ingredient matching
+ * (catalog hits, generic items like salt and water, and unknown items).
+ * Latency and failures are injected to imitate the real API:
+ * - latency-ms (+ up to latency-jitter-ms) per call, spread over the chunks
+ *   when streaming
+ * - failure-rate: share of calls failing with
+ *   {@link GeminiUnavailableException}
+ */
+@Component
+@ConditionalOnProperty(name = "app.recipe-generator.provider", havingValue = "offline")
+public class OfflineRecipeGenerator implements RecipeGenerator {
+
+    private static final String[][] INGREDIENTS = {
+            { "tomatoes", "3 medium", "450" }, { "onion", "2 medium", "300" }, { "garlic cloves", "4 cloves", "12" },
+            { "ginger", "1 inch", "10" }, { "paneer cubes", "1 cup", "200" }, { "butter", "2 tbsp", "30" },
+            { "cream", "1/4 cup", "60" }, { "basmati rice", "1 cup", "200" }, { "chicken", "2 breasts", "400" },
+            { "coriander leaves", "1 handful", "15" }, { "green chilli", "2", "10" }, { "cumin seeds", "1 tsp", "5" },
+            { "garam masala", "1 tsp", "5" }, { "lemon juice", "1 tbsp", "15" }, { "potatoes", "2 medium", "400" },
+            { "eggs", "3", "150" }, { "milk", "1 cup", "240" }, { "red chilli powder", "1 tsp", "5" },
+            { "black pepper", "1/2 tsp", "2" }, { "mint leaves", "10 leaves", "5" }, { "salt", "to taste", "0" },
+            { "water", "2 cups", "480" }, { "oil", "2 tbsp", "30" }, { "saffron", "a pinch", "0" },
+            { "bay leaf", "2", "0" } };
+    private static final String[] STEPS = {
+            "Wash and chop the %s.", "Heat a pan and add the %s.", "Cook the %s until soft, about 5 minutes.",
+            "Stir in the %s and season to taste.", "Simmer with the %s for 10 minutes.",
+            "Garnish with the %s and serve hot." };
+    private static final String[] DIFFICULTIES = { "Easy", "Medium", "Hard" };
+    private static final int CHUNK_CHARS = 48;
+
+    @Value("${app.recipe-generator.offline.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${app.recipe-generator.offline.latency-jitter-ms:0}")
+    private long latencyJitterMs;
+
+    @Value("${app.recipe-generator.offline.failure-rate:0.0}")
+    private double failureRate;
+
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService streamScheduler;
+
+    public OfflineRecipeGenerator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        AtomicInteger counter = new AtomicInteger();
+        this.streamScheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "offline-recipe-stream-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamScheduler.shutdownNow();
+    }
+
+    @Override
+    public String generate(String prompt, int servings) throws IOException {
+        String json = recipeJson(prompt, servings);
+        try {
+            Thread.sleep(latency());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiUnavailableException("Offline generation interrupted");
+        }
+        if (injectFailure()) {
+            throw new GeminiUnavailableException("Offline generator: injected failure");
+        }
+        return json;
+    }
+
+    @Override
+    public CompletableFuture<Void> stream(String prompt, int servings, Consumer<String> onText) throws IOException {
+        String json = recipeJson(prompt, servings);
+        int chunks = (json.length() + CHUNK_CHARS - 1) / CHUNK_CHARS;
+        long interval = Math.max(1, latency() / chunks);
+        // A failing stream breaks off halfway, like a dropped connection
+        int failAt = injectFailure() ? chunks / 2 : -1;
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AtomicInteger next = new AtomicInteger();
+        var task = streamScheduler.scheduleAtFixedRate(() -> {
+            int i = next.getAndIncrement();
+            if (done.isDone())
+                return;
+            if (i == failAt) {
+                done.completeExceptionally(new GeminiUnavailableException("Offline generator: injected stream failure"));
+                return;
+            }
+            try {
+                onText.accept(json.substring(i * CHUNK_CHARS, Math.min(json.length(), (i + 1) * CHUNK_CHARS)));
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+                return;
+            }
+            if (i == chunks - 1)
+                done.complete(null);
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        done.whenComplete((ignored, error) -> task.cancel(false));
+        return done;
+    }
+
+    private String recipeJson(String prompt, int servings) throws IOException {
+        String normalized = prompt == null ? "" : prompt.trim().toLowerCase(Locale.ROOT);
+        Random random = new Random(31L * normalized.hashCode() + servings);
+        double scale = Math.max(1, servings) / 2.0;
+
+        List<String[]> pool = new ArrayList<>(List.of(INGREDIENTS));
+        int count = 6 + random.nextInt(7);
+        List<Map<String, Object>> ingredients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] picked = pool.remove(random.nextInt(pool.size()));
+            Map<String, Object> ingredient = new LinkedHashMap<>();
+            ingredient.put("name", picked[0]);
+            ingredient.put("quantity", picked[1]);
+            ingredient.put("quantity_grams", (int) Math.round(Integer.parseInt(picked[2]) * scale));
+            ingredients.add(ingredient);
+        }
+        List<String> instructions = new ArrayList<>();
+        for (int i = 0; i < STEPS.length; i++) {
+            instructions.add(STEPS[i].formatted(ingredients.get(i % ingredients.size()).get("name")));
+        }
+
+        Map<String, Object> recipe = new LinkedHashMap<>();
+        recipe.put("title", title(normalized));
+        recipe.put("instructions", instructions);
+        recipe.put("prepTime", (15 + 5 * random.nextInt(10)) + " minutes");
+        recipe.put("difficulty", DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]);
+        recipe.put("ingredients", ingredients);
+        return objectMapper.writeValueAsString(recipe);
+    }
+
+    private static String title(String prompt) {
+        if (prompt.isEmpty())
+            return "Chef's Special";
+        String title = prompt.length() > 60 ? prompt.substring(0, 60).trim() : prompt;
+        return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+    }
+
+    private long latency() {
+        return latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+    }
+
+    private boolean injectFailure() {
+        return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+}
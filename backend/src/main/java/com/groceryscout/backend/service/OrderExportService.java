@@ -0,0 +1,132 @@
+package com.groceryscout.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryscout.backend.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams order lines for finance exports without materializing them.
+ * Rows are pulled from a database cursor and written straight to the output,
+ * so memory stays flat regardless of the requested range.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final String[] COLUMNS = { "order_id", "created_at", "status", "user_id", "total_price",
+            "delivery_address", "product_id", "product_name", "quantity", "price_at_purchase" };
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every order line created in [from, to) as NDJSON or CSV.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportOrderLines(LocalDateTime from, LocalDateTime to, boolean csv, OutputStream out)
+            throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        try (Stream<Object[]> lines = orderRepository.streamOrderLines(from, to)) {
+            Iterator<Object[]> it = lines.iterator();
+            if (csv) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+                while (it.hasNext()) {
+                    writeCsvRow(writer, it.next());
+                    rows++;
+                }
+            } else {
+                // Rows and separators go through the generator's buffer; only the final flush reaches the stream
+                JsonGenerator gen = objectMapper.getFactory().createGenerator(writer)
+                        .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                gen.setRootValueSeparator(null);
+                while (it.hasNext()) {
+                    writeJsonRow(gen, it.next());
+                    gen.writeRaw('\n');
+                    rows++;
+                }
+                gen.flush();
+            }
+        }
+        writer.flush();
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Exported {} order lines ({} to {}) in {} ms ({} rows/s)", rows, from, to, elapsedMs,
+                rows * 1000 / elapsedMs);
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, Object[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0)
+                writer.write(',');
+            Object value = row[i];
+            if (value == null)
+                continue;
+            String text = format(value);
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonRow(JsonGenerator gen, Object[] row) throws IOException {
+        gen.writeStartObject();
+        for (int i = 0; i < row.length; i++) {
+            Object value = row[i];
+            gen.writeFieldName(COLUMNS[i]);
+            if (value == null) {
+                gen.writeNull();
+            } else if (value instanceof Number number && !(value instanceof java.math.BigDecimal)) {
+                gen.writeNumber(number.longValue());
+            } else if (value instanceof java.math.BigDecimal decimal) {
+                gen.writeNumber(decimal);
+            } else {
+                gen.writeString(format(value));
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Timestamps as ISO-8601 with the server's offset (orders store local
+     * time), e.g. 2024-05-01T18:30:00+05:30; anything else via toString.
+     */
+    private static String format(Object value) {
+        LocalDateTime dateTime = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime()
+                : value instanceof LocalDateTime local ? local : null;
+        if (dateTime == null)
+            return value.toString();
+        return dateTime.atZone(ZoneId.systemDefault()).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -27,13 +28,16 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final KafkaEventService kafkaEventService;
+    private final RevenueAnalyticsService revenueAnalyticsService;
 
     public OrderService(OrderRepository orderRepository, ProductRepository productRepository,
-            UserRepository userRepository, KafkaEventService kafkaEventService) {
+            UserRepository userRepository, KafkaEventService kafkaEventService,
+            RevenueAnalyticsService revenueAnalyticsService) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.kafkaEventService = kafkaEventService;
+        this.revenueAnalyticsService = revenueAnalyticsService;
     }
 
     /**
@@ -79,6 +83,7 @@ public class OrderService {
 
         order.setTotalPrice(totalAmount);
         Order savedOrder = orderRepository.save(order);
+        revenueAnalyticsService.recordOrderPlaced(savedOrder.getCreatedAt(), savedOrder.getStatus(), totalAmount);
 
         // Transform to DTO for event publication
         List<com.groceryscout.backend.dto.OrderEvent.OrderItemDto> orderItems = savedOrder.getItems().stream()
@@ -127,7 +132,10 @@ public class OrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
-        kafkaEventService.sendOrderStatusChanged(orderId, oldStatus, newStatus.name());
+        revenueAnalyticsService.recordStatusChange(savedOrder.getCreatedAt(), OrderStatus.valueOf(oldStatus),
+                newStatus, savedOrder.getTotalPrice());
+        kafkaEventService.sendOrderStatusChanged(orderId, savedOrder.getUser().getId(), oldStatus,
+                newStatus.name());
         return savedOrder;
     }
 
@@ -139,6 +147,10 @@ public class OrderService {
         return orderRepository.findByStatus(status);
     }
 
+    public Optional<Order> getOrder(Long orderId) {
+        return orderRepository.findById(orderId);
+    }
+
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
@@ -147,15 +159,6 @@ public class OrderService {
         return orderRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(page, size));
     }
 
-    /**
-     * Aggregates daily revenue for dashboard analytics.
-     */
-    public List<Map<String, Object>> getRevenuePerDay() {
-        return orderRepository.getRevenuePerDay().stream()
-                .map(row -> Map.<String, Object>of("day", row[0], "revenue", row[1]))
-                .collect(Collectors.toList());
-    }
-
     public Map<String, Object> getDashboardStats() {
         long totalOrders = orderRepository.count();
         long pendingOrders = orderRepository.countByStatus(OrderStatus.PENDING);
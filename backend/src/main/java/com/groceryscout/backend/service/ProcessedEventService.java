@@ -0,0 +1,121 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Idempotency guard for inventory work units.
+ *
+ * The processed_events ledger is the source of truth and is written in the
+ * caller's transaction, so a unit is marked exactly when its stock change
+ * commits. A Bloom filter of recent keys sits in front: a key it has never
+ * seen skips the existence query and goes straight to the (conflict-safe)
+ * insert, and only possible duplicates pay for a lookup.
+ */
+@Service
+public class ProcessedEventService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessedEventService.class);
+
+    @Value("${app.inventory.dedup.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.inventory.dedup.expected-keys:2000000}")
+    private long expectedKeys;
+
+    @Value("${app.inventory.dedup.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter duplicatesSkipped;
+    private volatile BloomFilter seen;
+
+    public ProcessedEventService(ProcessedEventRepository processedEventRepository,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.processedEventRepository = processedEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.duplicatesSkipped = Counter.builder("inventory.dedup.skipped")
+                .description("Inventory work units skipped as already processed")
+                .register(meterRegistry);
+    }
+
+    public static String deductionKey(Long orderId, Long productId) {
+        return orderId + ":" + productId;
+    }
+
+    public static String trendingKey(Long orderId) {
+        return "trending:" + orderId;
+    }
+
+    /**
+     * Records {@code key} as processed within the current transaction.
+     *
+     * @return false if it had already been processed and must be skipped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean markProcessed(String key, Long orderId) {
+        BloomFilter filter = seen;
+        if (filter == null || filter.mightContain(key)) {
+            if (processedEventRepository.existsByEventKey(key)) {
+                duplicatesSkipped.increment();
+                return false;
+            }
+        }
+        if (processedEventRepository.markProcessed(key, orderId, LocalDateTime.now()) == 0) {
+            // Lost a race with another consumer of the same key
+            duplicatesSkipped.increment();
+            return false;
+        }
+        if (filter != null)
+            filter.put(key);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuildFilter();
+    }
+
+    /**
+     * Drops ledger rows past the redelivery horizon and rebuilds the filter
+     * from what remains.
+     */
+    @Scheduled(cron = "${app.inventory.dedup.cleanup-cron:0 15 3 * * *}")
+    public void cleanup() {
+        Integer removed = transactionTemplate.execute(
+                status -> processedEventRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Removed {} processed-event entries older than {} days", removed, retentionDays);
+        rebuildFilter();
+    }
+
+    private void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(expectedKeys, falsePositiveRate);
+        long[] count = new long[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> keys = processedEventRepository
+                    .streamKeysSince(LocalDateTime.now().minusDays(retentionDays))) {
+                keys.forEach(key -> {
+                    filter.put(key);
+                    count[0]++;
+                });
+            }
+        });
+        seen = filter;
+        log.info("Processed-event filter loaded with {} keys", count[0]);
+    }
+}
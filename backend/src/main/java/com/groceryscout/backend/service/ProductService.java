@@ -8,15 +8,23 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final KafkaEventService kafkaEventService;
+    private final InventoryAlertService inventoryAlertService;
+    private final IngredientMatcher ingredientMatcher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, KafkaEventService kafkaEventService,
+            InventoryAlertService inventoryAlertService, IngredientMatcher ingredientMatcher) {
         this.productRepository = productRepository;
+        this.kafkaEventService = kafkaEventService;
+        this.inventoryAlertService = inventoryAlertService;
+        this.ingredientMatcher = ingredientMatcher;
     }
 
     public List<Product> getAllActiveProducts() {
@@ -49,11 +57,15 @@ public class ProductService {
     public Product createProduct(ProductRequest request) {
         Product product = new Product();
         mapRequestToProduct(request, product);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        ingredientMatcher.productChanged(saved.getId(), saved.getName());
+        return saved;
     }
 
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        ingredientMatcher.productChanged(saved.getId(), saved.getName());
+        return saved;
     }
 
     /**
@@ -67,8 +79,14 @@ public class ProductService {
     public Product updateProduct(Long id, ProductRequest request) {
         Product product = getProductById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + id));
+        Integer previousStock = product.getInventoryCount();
+        String previousName = product.getName();
+        Boolean previousActive = product.getIsActive();
         mapRequestToProduct(request, product);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        afterStockChange(saved, previousStock);
+        afterCatalogChange(saved, previousName, previousActive);
+        return saved;
     }
 
     @CacheEvict(value = "products", key = "#id")
@@ -76,20 +94,29 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + id));
 
+        String previousName = product.getName();
+        Boolean previousActive = product.getIsActive();
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setPrice(productDetails.getPrice());
         product.setCategory(productDetails.getCategory());
         product.setImageUrl(productDetails.getImageUrl());
+        Integer previousStock = product.getInventoryCount();
         product.setInventoryCount(productDetails.getInventoryCount());
+        product.setLowStockThreshold(productDetails.getLowStockThreshold());
         product.setIsActive(productDetails.getIsActive());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        afterStockChange(saved, previousStock);
+        afterCatalogChange(saved, previousName, previousActive);
+        return saved;
     }
 
     @CacheEvict(value = "products", key = "#id")
     public void deleteProduct(Long id) {
+        String name = productRepository.findById(id).map(Product::getName).orElse(null);
         productRepository.deleteById(id);
+        ingredientMatcher.productChanged(id, name);
     }
 
     public List<Product> searchByName(String keyword) {
@@ -100,6 +127,26 @@ public class ProductService {
         return productRepository.findDistinctCategories();
     }
 
+    /**
+     * Publishes manual restocks/adjustments to 'inventory.updates' and keeps
+     * the alerting thresholds in sync.
+     */
+    private void afterStockChange(Product product, Integer previousStock) {
+        inventoryAlertService.updateThreshold(product.getId(), product.getLowStockThreshold());
+        Integer newStock = product.getInventoryCount();
+        if (newStock != null && !newStock.equals(previousStock)) {
+            kafkaEventService.sendInventoryUpdate(product.getId(), product.getName(),
+                    previousStock != null ? previousStock : 0, newStock);
+        }
+    }
+
+    private void afterCatalogChange(Product product, String previousName, Boolean previousActive) {
+        if (!Objects.equals(product.getName(), previousName)
+                || !Objects.equals(product.getIsActive(), previousActive)) {
+            ingredientMatcher.productChanged(product.getId(), product.getName(), previousName);
+        }
+    }
+
     private void mapRequestToProduct(ProductRequest source, Product target) {
         if (source.getName() != null)
             target.setName(source.getName());
@@ -113,6 +160,8 @@ public class ProductService {
             target.setCategory(source.getCategory());
         if (source.getInventoryCount() != null)
             target.setInventoryCount(source.getInventoryCount());
+        if (source.getLowStockThreshold() != null)
+            target.setLowStockThreshold(source.getLowStockThreshold());
         if (source.getImageUrl() != null)
             target.setImageUrl(source.getImageUrl());
         if (source.getIsActive() != null)
@@ -0,0 +1,263 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.entity.Recipe;
+import com.groceryscout.backend.repository.RecipeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Reuse of previously generated recipes for equivalent prompts.
+ *
+ * Prompts are reduced to a token set (lowercased, stop words and plural 's'
+ * dropped). A lookup tries, in order:
+ * 1. exact: same token set and servings
+ * 2. similar: a cached prompt for the same servings with Jaccard similarity
+ *    at or above the threshold
+ * 3. title: a stored recipe for the same servings whose title covers the
+ *    prompt's tokens (overlap at or above the threshold), chosen among the
+ *    newest title-candidates (id and title only) containing the most
+ *    specific token; this also covers recipes generated before a restart
+ *
+ * Entries expire after the TTL and the map is LRU-bounded. Lookups are
+ * counted per outcome in 'recipe.cache.lookups'.
+ */
+@Component
+public class RecipeGenerationCache {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "for", "with", "of", "in", "on", "to", "me", "my", "i", "want", "make",
+            "cook", "please", "some", "something", "recipe", "recipes", "dish", "quick", "easy", "people",
+            "person", "serving", "servings");
+
+    @Value("${app.recipe-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recipe-cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.recipe-cache.similarity-threshold:0.8}")
+    private double similarityThreshold;
+
+    @Value("${app.recipe-cache.title-candidates:50}")
+    private int titleCandidates;
+
+    private final RecipeRepository recipeRepository;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, Counter> lookups = new HashMap<>();
+
+    public RecipeGenerationCache(RecipeRepository recipeRepository, MeterRegistry meterRegistry,
+            @Value("${app.recipe-cache.max-entries:5000}") int maxEntries) {
+        this.recipeRepository = recipeRepository;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        for (String result : List.of("exact", "similar", "title", "miss")) {
+            lookups.put(result, Counter.builder("recipe.cache.lookups")
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("recipe.cache.size", this, RecipeGenerationCache::size).register(meterRegistry);
+        Gauge.builder("recipe.cache.hit.ratio", this, RecipeGenerationCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * Finds a stored recipe that answers the prompt, or empty on a miss.
+     */
+    public Optional<Recipe> lookup(String prompt, int servings) {
+        return lookup(prompt, servings, true);
+    }
+
+    /**
+     * Like {@link #lookup}, but only an exact prompt match counts; for
+     * prompts whose small differences matter.
+     */
+    public Optional<Recipe> lookupExact(String prompt, int servings) {
+        return lookup(prompt, servings, false);
+    }
+
+    private Optional<Recipe> lookup(String prompt, int servings, boolean nearMatches) {
+        if (!enabled)
+            return Optional.empty();
+        Set<String> tokens = tokenize(prompt);
+        if (tokens.isEmpty()) {
+            lookups.get("miss").increment();
+            return Optional.empty();
+        }
+        String key = key(tokens, servings);
+
+        Entry exact = get(key);
+        Optional<Recipe> recipe = exact != null ? load(key, exact) : Optional.empty();
+        if (recipe.isPresent()) {
+            lookups.get("exact").increment();
+            return recipe;
+        }
+        if (!nearMatches) {
+            lookups.get("miss").increment();
+            return Optional.empty();
+        }
+
+        Map.Entry<String, Entry> similar = mostSimilar(tokens, servings);
+        recipe = similar != null ? load(similar.getKey(), similar.getValue()) : Optional.empty();
+        if (recipe.isPresent()) {
+            put(key, new Entry(recipe.get().getId(), servings, tokens));
+            lookups.get("similar").increment();
+            return recipe;
+        }
+
+        recipe = byTitle(tokens, servings);
+        if (recipe.isPresent()) {
+            put(key, new Entry(recipe.get().getId(), servings, tokens));
+            lookups.get("title").increment();
+            return recipe;
+        }
+
+        lookups.get("miss").increment();
+        return Optional.empty();
+    }
+
+    public void put(String prompt, int servings, Long recipeId) {
+        Set<String> tokens = tokenize(prompt);
+        if (enabled && !tokens.isEmpty() && recipeId != null) {
+            put(key(tokens, servings), new Entry(recipeId, servings, tokens));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new TreeSet<>();
+        if (text == null)
+            return tokens;
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (raw.isEmpty() || STOP_WORDS.contains(raw))
+                continue;
+            String token = raw.length() > 3 && raw.endsWith("s") && !raw.endsWith("ss")
+                    ? raw.substring(0, raw.length() - 1)
+                    : raw;
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private Optional<Recipe> load(String key, Entry entry) {
+        Optional<Recipe> recipe = recipeRepository.findById(entry.recipeId);
+        if (recipe.isEmpty()) {
+            // The recipe was deleted since it was cached
+            remove(key);
+        }
+        return recipe;
+    }
+
+    private synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(ttlMinutes)) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    private synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    private synchronized Map.Entry<String, Entry> mostSimilar(Set<String> tokens, int servings) {
+        Map.Entry<String, Entry> best = null;
+        double bestScore = similarityThreshold;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> candidate = it.next();
+            Entry entry = candidate.getValue();
+            if (entry.isExpired(ttlMinutes)) {
+                it.remove();
+                continue;
+            }
+            if (entry.servings != servings)
+                continue;
+            double score = jaccard(tokens, entry.tokens);
+            if (score >= bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private Optional<Recipe> byTitle(Set<String> tokens, int servings) {
+        String probe = tokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Long bestId = null;
+        double bestScore = 0;
+        int bestTitleSize = 0;
+        for (Object[] row : recipeRepository.findTitleCandidates(probe, servings, PageRequest.of(0, titleCandidates))) {
+            Set<String> titleTokens = tokenize((String) row[1]);
+            double score = (double) intersection(tokens, titleTokens) / tokens.size();
+            if (score < similarityThreshold)
+                continue;
+            // Prefer the tightest title among equally covering ones
+            if (bestId == null || score > bestScore || (score == bestScore && titleTokens.size() < bestTitleSize)) {
+                bestId = ((Number) row[0]).longValue();
+                bestScore = score;
+                bestTitleSize = titleTokens.size();
+            }
+        }
+        return bestId == null ? Optional.empty() : recipeRepository.findById(bestId);
+    }
+
+    private double hitRatio() {
+        double hits = lookups.get("exact").count() + lookups.get("similar").count() + lookups.get("title").count();
+        double total = hits + lookups.get("miss").count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        int common = intersection(a, b);
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    private static int intersection(Set<String> a, Set<String> b) {
+        Set<String> small = a.size() <= b.size() ? a : b;
+        Set<String> large = small == a ? b : a;
+        int common = 0;
+        for (String token : small) {
+            if (large.contains(token))
+                common++;
+        }
+        return common;
+    }
+
+    private static String key(Set<String> tokens, int servings) {
+        return String.join(" ", tokens) + "|" + servings;
+    }
+
+    private static final class Entry {
+        final Long recipeId;
+        final int servings;
+        final Set<String> tokens;
+        final long createdAt = System.currentTimeMillis();
+
+        Entry(Long recipeId, int servings, Set<String> tokens) {
+            this.recipeId = recipeId;
+            this.servings = servings;
+            this.tokens = tokens;
+        }
+
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - createdAt > ttlMinutes * 60_000;
+        }
+    }
+}
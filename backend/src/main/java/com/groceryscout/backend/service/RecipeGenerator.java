@@ -0,0 +1,51 @@
+package com.groceryscout.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Source of generated recipes. {@link GeminiRecipeService} handles caching,
+ * parsing, ingredient matching and persistence; a generator only turns a
+ * prompt into recipe JSON:
+ *
+ * <pre>
+ * {"title": "...", "instructions": ["..."], "prepTime": "...", "difficulty": "...",
+ *  "ingredients": [{"name": "...", "quantity": "...", "quantity_grams": 0}]}
+ * </pre>
+ *
+ * The active implementation is chosen with app.recipe-generator.provider
+ * ('gemini' or 'offline'). Implementations signal that generation is
+ * temporarily impossible (quota, outage, overload) with
+ * {@link GeminiUnavailableException}, which callers map to 503.
+ */
+public interface RecipeGenerator {
+
+    /**
+     * Recipe JSON for the prompt; blocks until it is complete.
+     */
+    String generate(String prompt, int servings) throws IOException;
+
+    /**
+     * Like {@link #generate(String, int)}, but waits up to {@code maxWait}
+     * for generation capacity instead of failing when none is free.
+     */
+    default String generate(String prompt, int servings, Duration maxWait) throws IOException {
+        return generate(prompt, servings);
+    }
+
+    /**
+     * Produces the same JSON incrementally: {@code onText} receives the text
+     * in order as it is written, possibly wrapped in markdown code fences.
+     * The future completes when the text is complete.
+     */
+    CompletableFuture<Void> stream(String prompt, int servings, Consumer<String> onText) throws IOException;
+
+    /**
+     * Cheap pre-check so callers can fail fast before queueing work.
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+}
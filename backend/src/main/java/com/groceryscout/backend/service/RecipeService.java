@@ -1,60 +1,151 @@
 package com.groceryscout.backend.service;
 
+import com.groceryscout.backend.dto.RecipeFeedPage;
+import com.groceryscout.backend.dto.RecipeSummary;
+import com.groceryscout.backend.dto.RecipeView;
 import com.groceryscout.backend.entity.*;
 import com.groceryscout.backend.repository.HiddenRecipeRepository;
 import com.groceryscout.backend.repository.RecipeRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class RecipeService {
 
     private static final Logger log = LoggerFactory.getLogger(RecipeService.class);
 
+    @Value("${app.recipe-visibility.cache-ttl-ms:60000}")
+    private long cacheTtlMs;
+
     private final RecipeRepository recipeRepository;
     private final HiddenRecipeRepository hiddenRecipeRepository;
 
+    // Shared by every user; reloaded after manager recipes change or the TTL
+    private volatile Cached<Map<Long, RecipeView>> managerRecipes;
+
     public RecipeService(RecipeRepository recipeRepository, HiddenRecipeRepository hiddenRecipeRepository) {
         this.recipeRepository = recipeRepository;
         this.hiddenRecipeRepository = hiddenRecipeRepository;
     }
 
     /**
-     * Returns recipes visible to this user:
+     * Returns recipes visible to this user, newest first:
      * 1. User's own recipes (created by them)
      * 2. All MANAGER-created recipes (minus the ones this user has hidden)
      */
-    public List<Recipe> getRecipesForUser(User user) {
-        // 1. Get user's own recipes
-        List<Recipe> ownRecipes = recipeRepository.findByCreatorId(user.getId());
-
-        // 2. Get all manager-created recipes
-        List<Recipe> managerRecipes = recipeRepository.findByCreatorRole(Role.MANAGER);
-
-        // 3. Get IDs of recipes this user has hidden
-        Set<Long> hiddenIds = hiddenRecipeRepository.findByUserId(user.getId())
-                .stream()
-                .map(hr -> hr.getRecipe().getId())
-                .collect(Collectors.toSet());
-
-        // 4. Filter out hidden manager recipes
-        List<Recipe> visibleManagerRecipes = managerRecipes.stream()
-                .filter(r -> !hiddenIds.contains(r.getId()))
-                .filter(r -> !r.getCreator().getId().equals(user.getId())) // avoid duplicates with own
-                .toList();
-
-        // 5. Combine: own + visible manager recipes
-        List<Recipe> result = new ArrayList<>(ownRecipes);
-        result.addAll(visibleManagerRecipes);
-        return result;
+    public List<RecipeView> getRecipesForUser(User user) {
+        return getRecipePageForUser(user, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * One page of the same visible set, newest first. Visibility (own or
+     * manager, minus hidden) is resolved by a single anti-join query with
+     * keyset pagination on the id, so the cost does not grow with the size of
+     * the manager catalog or the page offset. Manager recipes on the page are
+     * served from the shared cache; only the rest are loaded.
+     *
+     * @param beforeId cursor from the previous page; null for the first page
+     */
+    public List<RecipeView> getRecipePageForUser(User user, Long beforeId, int size) {
+        List<Long> ids = recipeRepository.findVisibleIds(user.getId(), Role.MANAGER,
+                beforeId != null ? beforeId : Long.MAX_VALUE, PageRequest.of(0, size));
+        if (ids.isEmpty())
+            return List.of();
+        Map<Long, RecipeView> shared = managerRecipes();
+        Map<Long, RecipeView> byId = new HashMap<>(ids.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            RecipeView view = shared.get(id);
+            if (view != null) {
+                byId.put(id, view);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Recipe recipe : recipeRepository.findWithIngredientsByIdIn(missing)) {
+                byId.put(recipe.getId(), RecipeView.from(recipe));
+            }
+        }
+        List<RecipeView> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RecipeView view = byId.get(id);
+            if (view != null)
+                page.add(view); // absent if deleted between the two queries
+        }
+        return page;
+    }
+
+    /**
+     * Public feed page of recipe summaries, newest first. The first pages are
+     * what nearly every visitor requests, so they are cached briefly
+     * (app.recipe-feed.cache-ttl-seconds) instead of hitting the database on
+     * each unauthenticated call.
+     */
+    @Cacheable(value = "recipe-feed", key = "#page + ':' + #size", condition = "#page < 3")
+    public RecipeFeedPage getFeedPage(int page, int size) {
+        Slice<RecipeSummary> slice = recipeRepository.findSummaries(PageRequest.of(page, size));
+        return new RecipeFeedPage(new ArrayList<>(slice.getContent()), page, size, slice.hasNext());
+    }
+
+    /**
+     * Newest recipes with their ingredients, bounded to {@code limit}.
+     */
+    public List<Recipe> getLatestRecipes(int limit) {
+        List<Long> ids = recipeRepository.findLatestIds(PageRequest.of(0, limit));
+        if (ids.isEmpty())
+            return List.of();
+        List<Recipe> recipes = new ArrayList<>(recipeRepository.findWithIngredientsByIdIn(ids));
+        recipes.sort(Comparator.comparing(Recipe::getId).reversed());
+        return recipes;
+    }
+
+    public Optional<Recipe> getRecipeDetail(Long id) {
+        return recipeRepository.findDetailedById(id);
+    }
+
+    /**
+     * Drops the cached manager recipe list; called whenever a manager recipe
+     * is created or deleted.
+     */
+    public void invalidateManagerRecipes() {
+        managerRecipes = null;
+    }
+
+    private Map<Long, RecipeView> managerRecipes() {
+        Cached<Map<Long, RecipeView>> current = managerRecipes;
+        if (current == null || current.isExpired(cacheTtlMs)) {
+            Map<Long, RecipeView> views = new HashMap<>();
+            for (Recipe recipe : recipeRepository.findWithIngredientsByCreatorRole(Role.MANAGER)) {
+                views.put(recipe.getId(), RecipeView.from(recipe));
+            }
+            current = new Cached<>(Map.copyOf(views));
+            managerRecipes = current;
+        }
+        return current.value();
+    }
+
+    private record Cached<T>(T value, long loadedAt) {
+        Cached(T value) {
+            this(value, System.currentTimeMillis());
+        }
+
+        boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - loadedAt > ttlMs;
+        }
     }
 
     /**
@@ -75,6 +166,8 @@ public class RecipeService {
         if (isAdmin || isCreator) {
             // Creator or Admin → permanently delete
             recipeRepository.delete(recipe);
+            if (isManagerRecipe)
+                invalidateManagerRecipes();
             log.info("Recipe '{}' (ID: {}) permanently deleted by user {}", recipe.getTitle(), recipeId,
                     user.getEmail());
         } else if (isManagerRecipe) {
@@ -0,0 +1,123 @@
+package com.groceryscout.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Incremental parser for the recipe JSON while Gemini is still writing it.
+ *
+ * Text fragments are fed to Jackson's non-blocking parser as they arrive;
+ * each recipe part is reported as soon as its closing token has been seen:
+ * root-level scalar fields (title, prepTime, difficulty), every instruction
+ * step and every completed ingredient object. Anything before the opening
+ * brace (e.g. a markdown fence) and after the root object is ignored.
+ */
+class RecipeStreamParser {
+
+    interface Listener {
+        void onField(String name, String value);
+
+        void onInstruction(int index, String step);
+
+        void onIngredient(String name, String quantity, int grams);
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Listener listener;
+    private final JsonParser parser;
+    private boolean started;
+    private boolean finished;
+    private int instructionCount;
+    private String ingredientName;
+    private String ingredientQuantity;
+    private int ingredientGrams;
+
+    RecipeStreamParser(Listener listener) {
+        this.listener = listener;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Feeds the next fragment of model output.
+     *
+     * @throws IOException if the text so far is not valid JSON
+     */
+    void feed(String fragment) throws IOException {
+        if (finished || fragment.isEmpty())
+            return;
+        if (!started) {
+            int brace = fragment.indexOf('{');
+            if (brace < 0)
+                return;
+            fragment = fragment.substring(brace);
+            started = true;
+        }
+        byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+        ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            JsonStreamContext ctx = parser.getParsingContext();
+            switch (token) {
+                case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> onScalar(ctx);
+                case START_OBJECT -> {
+                    if (isIngredientObject(ctx)) {
+                        ingredientName = null;
+                        ingredientQuantity = "";
+                        ingredientGrams = 0;
+                    }
+                }
+                case END_OBJECT -> {
+                    if (ctx.inRoot()) {
+                        finished = true;
+                    } else if (ctx.inArray() && "ingredients".equals(ctx.getParent().getCurrentName())
+                            && ctx.getParent().getParent().inRoot()) {
+                        if (ingredientName != null)
+                            listener.onIngredient(ingredientName, ingredientQuantity, ingredientGrams);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void onScalar(JsonStreamContext ctx) throws IOException {
+        JsonStreamContext parent = ctx.getParent();
+        if (ctx.inObject() && parent.inRoot()) {
+            listener.onField(ctx.getCurrentName(), parser.getValueAsString());
+        } else if (ctx.inArray() && parent != null && parent.getParent() != null && parent.getParent().inRoot()
+                && "instructions".equals(parent.getCurrentName())) {
+            listener.onInstruction(instructionCount++, parser.getValueAsString());
+        } else if (isIngredientObject(ctx) && ctx.hasCurrentName()) {
+            switch (ctx.getCurrentName()) {
+                case "name" -> ingredientName = parser.getValueAsString();
+                case "quantity" -> ingredientQuantity = parser.getValueAsString();
+                case "quantity_grams" -> ingredientGrams = parser.getValueAsInt(0);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static boolean isIngredientObject(JsonStreamContext ctx) {
+        JsonStreamContext array = ctx.getParent();
+        return ctx.inObject() && array != null && array.inArray() && array.getParent() != null
+                && array.getParent().getParent() != null && array.getParent().getParent().inRoot()
+                && "ingredients".equals(array.getParent().getCurrentName());
+    }
+}
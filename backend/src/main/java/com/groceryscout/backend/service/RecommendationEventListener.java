@@ -0,0 +1,50 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.OrderEvent;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Feeds 'orders.created' baskets into the co-purchase engine.
+ * Uses its own consumer group so recommendations keep independent offsets
+ * from inventory processing. On assignment each partition is moved to the
+ * offset the restored snapshot ends at, since the in-memory counts only
+ * reflect what the snapshot holds, not what the group has committed.
+ */
+@Service
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = false)
+public class RecommendationEventListener implements ConsumerSeekAware {
+
+    private final CoPurchaseService coPurchaseService;
+
+    public RecommendationEventListener(CoPurchaseService coPurchaseService) {
+        this.coPurchaseService = coPurchaseService;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition partition : assignments.keySet()) {
+            Long position = coPurchaseService.position(
+                    CoPurchaseService.kafkaSource(partition.topic(), partition.partition()));
+            if (position != null) {
+                callback.seek(partition.topic(), partition.partition(), position);
+            }
+        }
+    }
+
+    @KafkaListener(topics = "orders.created", groupId = "recommendation-group",
+            concurrency = "${app.kafka.concurrency.orders-created:3}")
+    public void handleOrderCreated(OrderEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset) {
+        coPurchaseService.recordOrder(event, CoPurchaseService.kafkaSource(topic, partition), offset);
+    }
+}
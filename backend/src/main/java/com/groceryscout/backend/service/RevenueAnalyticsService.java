@@ -0,0 +1,245 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.entity.OrderStatus;
+import com.groceryscout.backend.repository.OrderRepository;
+import com.groceryscout.backend.repository.RevenueBucketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Range- and granularity-aware revenue analytics.
+ * Queries are answered from hourly {@code revenue_buckets} maintained by the
+ * order lifecycle; until order history from before the buckets existed has
+ * been backfilled into them they fall back to a range scan over
+ * {@code orders} on (created_at, status).
+ *
+ * The backfill runs once, in the background, and is marked done on the
+ * table; admins can re-run it for a date range to correct drift. It
+ * recomputes one closed hour per short transaction and never touches the
+ * current or previous hour, which new orders are still being counted into,
+ * so order placement never waits on it.
+ */
+@Service
+public class RevenueAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueAnalyticsService.class);
+    private static final Set<String> GRANULARITIES = Set.of("hour", "day", "week", "month");
+    private static final long MAX_POINTS = 5000;
+    private static final String BACKFILLED_MARKER = "backfilled";
+    private static final String STATUSES = Arrays.stream(OrderStatus.values())
+            .map(status -> "('" + status.name() + "')")
+            .collect(Collectors.joining(", "));
+
+    private final RevenueBucketRepository revenueBucketRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService reconciler = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "revenue-reconcile");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private volatile boolean bucketsReady = false;
+
+    public RevenueAnalyticsService(RevenueBucketRepository revenueBucketRepository, OrderRepository orderRepository,
+            TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate) {
+        this.revenueBucketRepository = revenueBucketRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Starts the one-time backfill of order history if no node has completed
+     * it yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillBuckets() {
+        try {
+            if (isBackfilled()) {
+                bucketsReady = true;
+                return;
+            }
+            startReconcile(null, null);
+        } catch (Exception e) {
+            log.warn("Revenue bucket backfill could not start, analytics will query orders directly", e);
+        }
+    }
+
+    /**
+     * Recomputes the buckets of every closed hour in [from, to) from orders
+     * in the background, zeroing out (and dropping) buckets whose orders are
+     * gone. A null bound means the start or end of order history; hours
+     * after the previous one are always skipped.
+     *
+     * @throws IllegalStateException if a reconcile is already running
+     */
+    public Map<String, Object> startReconcile(LocalDateTime from, LocalDateTime to) {
+        if (!reconciling.compareAndSet(false, true)) {
+            throw new IllegalStateException("A revenue reconcile is already running");
+        }
+        LocalDateTime cutoff = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        LocalDateTime end = to == null || to.isAfter(cutoff) ? cutoff : to;
+        boolean fullHistory = from == null && to == null;
+        try {
+            reconciler.execute(() -> {
+                try {
+                    int hours = reconcileHours(from, end);
+                    if (fullHistory) {
+                        jdbcTemplate.execute("COMMENT ON TABLE revenue_buckets IS '" + BACKFILLED_MARKER + "'");
+                        bucketsReady = true;
+                    }
+                    log.info("Reconciled revenue buckets of {} hours before {}", hours, end);
+                } catch (Exception e) {
+                    log.error("Revenue bucket reconcile failed; re-run it from the admin API", e);
+                } finally {
+                    reconciling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reconciling.set(false);
+            throw e;
+        }
+        Map<String, Object> started = new LinkedHashMap<>();
+        started.put("from", from);
+        started.put("to", end);
+        started.put("status", "STARTED");
+        return started;
+    }
+
+    private int reconcileHours(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from;
+        if (start == null) {
+            start = jdbcTemplate.queryForObject("SELECT LEAST("
+                    + "(SELECT date_trunc('hour', MIN(created_at)) FROM orders), "
+                    + "(SELECT MIN(bucket_start) FROM revenue_buckets))", LocalDateTime.class);
+            if (start == null)
+                return 0;
+        }
+        List<LocalDateTime> hours = jdbcTemplate.queryForList(
+                "SELECT date_trunc('hour', created_at) FROM orders WHERE created_at >= ? AND created_at < ? "
+                        + "UNION SELECT bucket_start FROM revenue_buckets WHERE bucket_start >= ? AND bucket_start < ? "
+                        + "ORDER BY 1",
+                LocalDateTime.class, start, to, start, to);
+        for (LocalDateTime hour : hours) {
+            transactionTemplate.executeWithoutResult(status -> reconcileHour(hour));
+        }
+        return hours.size();
+    }
+
+    /**
+     * Overwrites one hour's buckets with the values recomputed from orders.
+     * Creating and locking a row per status first makes a concurrent status
+     * change either commit before the recount (and be part of it) or wait and
+     * add its delta on top; only writes to this hour wait, and only briefly.
+     */
+    private void reconcileHour(LocalDateTime hour) {
+        jdbcTemplate.update("INSERT INTO revenue_buckets (bucket_start, status, order_count, revenue) "
+                + "SELECT ?, s.status, 0, 0 FROM (VALUES " + STATUSES + ") AS s(status) "
+                + "ON CONFLICT (bucket_start, status) DO UPDATE SET order_count = revenue_buckets.order_count",
+                hour);
+        jdbcTemplate.update("UPDATE revenue_buckets b SET order_count = COALESCE(o.order_count, 0), "
+                + "revenue = COALESCE(o.revenue, 0) "
+                + "FROM revenue_buckets x LEFT JOIN (SELECT status, COUNT(*) AS order_count, "
+                + "SUM(total_price) AS revenue FROM orders WHERE created_at >= ? AND created_at < ? "
+                + "GROUP BY status) o ON o.status = x.status "
+                + "WHERE b.id = x.id AND b.bucket_start = ?",
+                hour, hour.plusHours(1), hour);
+        jdbcTemplate.update("DELETE FROM revenue_buckets WHERE bucket_start = ? AND order_count = 0", hour);
+    }
+
+    private boolean isBackfilled() {
+        String comment = jdbcTemplate.queryForObject(
+                "SELECT obj_description(CAST('revenue_buckets' AS regclass), 'pg_class')", String.class);
+        return BACKFILLED_MARKER.equals(comment);
+    }
+
+    /**
+     * Counts a newly placed order in its hourly bucket. Must run inside the
+     * order's transaction.
+     */
+    @Transactional
+    public void recordOrderPlaced(LocalDateTime createdAt, OrderStatus status, BigDecimal total) {
+        revenueBucketRepository.addToBucket(createdAt, status.name(), 1, total);
+    }
+
+    /**
+     * Moves an order's contribution from its old status bucket to the new one.
+     */
+    @Transactional
+    public void recordStatusChange(LocalDateTime createdAt, OrderStatus oldStatus, OrderStatus newStatus,
+            BigDecimal total) {
+        if (createdAt == null || oldStatus == newStatus)
+            return;
+        revenueBucketRepository.addToBucket(createdAt, oldStatus.name(), -1, total.negate());
+        revenueBucketRepository.addToBucket(createdAt, newStatus.name(), 1, total);
+    }
+
+    /**
+     * Aggregates order count and revenue per period in [from, to).
+     *
+     * @param granularity hour, day, week or month
+     * @param status      optional status filter
+     * @throws IllegalArgumentException on an unknown granularity or oversized
+     *                                  range
+     */
+    public List<Map<String, Object>> getRevenue(LocalDateTime from, LocalDateTime to, String granularity,
+            OrderStatus status) {
+        String unit = granularity.toLowerCase();
+        if (!GRANULARITIES.contains(unit)) {
+            throw new IllegalArgumentException("Granularity must be one of hour, day, week, month");
+        }
+        long points = unit.equals("hour") ? Duration.between(from, to).toHours()
+                : ChronoUnit.DAYS.between(from, to);
+        if (points > MAX_POINTS) {
+            throw new IllegalArgumentException("Requested range is too large for granularity '" + unit + "'");
+        }
+
+        if (!bucketsReady && !reconciling.get()) {
+            // Another node may have finished the backfill since this one started
+            bucketsReady = isBackfilled();
+        }
+        List<Object[]> rows;
+        if (bucketsReady) {
+            rows = status == null
+                    ? revenueBucketRepository.aggregate(unit, from, to)
+                    : revenueBucketRepository.aggregateByStatus(unit, from, to, status.name());
+        } else {
+            rows = status == null
+                    ? orderRepository.aggregateRevenue(unit, from, to)
+                    : orderRepository.aggregateRevenueByStatus(unit, from, to, status.name());
+        }
+
+        return rows.stream()
+                .map(row -> {
+                    Map<String, Object> point = new LinkedHashMap<>();
+                    point.put("period", row[0]);
+                    point.put("orders", row[1]);
+                    point.put("revenue", row[2]);
+                    return point;
+                })
+                .collect(Collectors.toList());
+    }
+}
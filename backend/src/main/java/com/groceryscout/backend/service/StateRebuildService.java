@@ -0,0 +1,335 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.dto.StockDeductionEvent;
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.repository.OrderItemRepository;
+import com.groceryscout.backend.repository.ProcessedEventRepository;
+import com.groceryscout.backend.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Admin-triggered recomputation of derived state from order history.
+ *
+ * The order_items table is split into order-id ranges that are aggregated in
+ * parallel on a bounded pool (the heavy lifting is a GROUP BY per chunk in
+ * the database), with progress and throughput tracked per job.
+ *
+ * - trending: recounts order lines per product up to the highest order id
+ *   at start and swaps the result into Redis; orders after that watermark
+ *   keep flowing in through the live consumer (see {@link TrendingService}).
+ *   An order below the watermark may still be uncommitted when it is read,
+ *   and its live increment is dropped by the swap, so the scan waits until
+ *   every transaction in progress at that point has finished. Order ids come
+ *   from a sequence, so no later transaction can add an id below it.
+ * - inventory: finds order lines whose deduction never reached the
+ *   processed-events ledger and reports the expected stock per product;
+ *   with apply=true the missing units are re-published to
+ *   'inventory.deductions', where the idempotent consumer applies them.
+ *   Only orders still covered by the ledger are checked, since pruned
+ *   entries would look like missing deductions.
+ */
+@Service
+public class StateRebuildService {
+
+    private static final Logger log = LoggerFactory.getLogger(StateRebuildService.class);
+    private static final int MAX_REPORTED_PRODUCTS = 500;
+
+    @Value("${app.rebuild.chunk-size:50000}")
+    private long chunkSize;
+
+    @Value("${app.rebuild.settle-timeout-ms:60000}")
+    private long settleTimeoutMs;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    private final ProductRepository productRepository;
+    private final TrendingService trendingService;
+    private final KafkaEventService kafkaEventService;
+    private final ExecutorService workers;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "state-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobSequence = new AtomicLong();
+
+    public StateRebuildService(OrderItemRepository orderItemRepository,
+            ProcessedEventRepository processedEventRepository, ProductRepository productRepository,
+            TrendingService trendingService, KafkaEventService kafkaEventService,
+            @Value("${app.rebuild.threads:4}") int threads) {
+        this.orderItemRepository = orderItemRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.productRepository = productRepository;
+        this.trendingService = trendingService;
+        this.kafkaEventService = kafkaEventService;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "state-rebuild-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Map<String, Object> startTrendingRebuild() {
+        Job job = register("trending");
+        coordinator.execute(() -> run(job, () -> {
+            Object[] start = orderItemRepository.findOrderIdRangeWithSnapshot().get(0);
+            long[] range = toRange(start);
+            long watermark = range[1];
+            Map<Long, LongAdder> scores = new ConcurrentHashMap<>();
+            trendingService.beginRebuild(watermark);
+            try {
+                awaitTransactions((String) start[2]);
+                scan(job, range[0], watermark + 1, (from, to) -> {
+                    List<Object[]> rows = orderItemRepository.countLinesPerProduct(from, to);
+                    long lines = 0;
+                    for (Object[] row : rows) {
+                        long count = ((Number) row[1]).longValue();
+                        scores.computeIfAbsent(((Number) row[0]).longValue(), id -> new LongAdder()).add(count);
+                        lines += count;
+                    }
+                    return lines;
+                });
+                Map<Long, Long> counted = new HashMap<>(scores.size() * 2);
+                scores.forEach((productId, score) -> counted.put(productId, score.sum()));
+                trendingService.addRebuildScores(counted);
+                trendingService.finishRebuild(watermark);
+            } catch (RuntimeException e) {
+                trendingService.abortRebuild();
+                throw e;
+            }
+            job.result = Map.of("products", scores.size(), "throughOrderId", watermark);
+        }));
+        return job.toMap();
+    }
+
+    /**
+     * @param fromOrderId first order to check; defaults to, and is clamped
+     *                    to, the oldest order in the processed-events ledger,
+     *                    since earlier orders were deducted before the
+     *                    ledger existed or their entries were pruned
+     */
+    public Map<String, Object> startInventoryRebuild(Long fromOrderId, boolean apply) {
+        Job job = register("inventory");
+        coordinator.execute(() -> run(job, () -> {
+            Long oldest = processedEventRepository.findOldestOrderId();
+            if (oldest == null) {
+                job.result = Map.of("message", "Processed-events ledger is empty; there is nothing to check against");
+                return;
+            }
+            long start = fromOrderId != null ? Math.max(fromOrderId, oldest) : oldest;
+            long[] range = orderIdRange();
+            Map<Long, LongAdder> missingQuantity = new ConcurrentHashMap<>();
+            Map<Long, LongAdder> missingUnits = new ConcurrentHashMap<>();
+            List<StockDeductionEvent> missing = Collections.synchronizedList(new ArrayList<>());
+            scan(job, Math.max(start, range[0]), range[1] + 1, (from, to) -> {
+                List<Object[]> rows = orderItemRepository.findUnappliedDeductions(from, to);
+                for (Object[] row : rows) {
+                    long productId = ((Number) row[1]).longValue();
+                    int quantity = ((Number) row[2]).intValue();
+                    missingQuantity.computeIfAbsent(productId, id -> new LongAdder()).add(quantity);
+                    missingUnits.computeIfAbsent(productId, id -> new LongAdder()).increment();
+                    if (apply)
+                        missing.add(new StockDeductionEvent(((Number) row[0]).longValue(), productId, quantity));
+                }
+                return rows.size();
+            });
+
+            List<Map<String, Object>> drift = new ArrayList<>();
+            for (Product product : productRepository.findAllById(missingQuantity.keySet())) {
+                long quantity = missingQuantity.get(product.getId()).sum();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("productId", product.getId());
+                entry.put("name", product.getName());
+                entry.put("currentStock", product.getInventoryCount());
+                entry.put("missingUnits", missingUnits.get(product.getId()).sum());
+                entry.put("missingQuantity", quantity);
+                entry.put("expectedStock", Math.max(0, product.getInventoryCount() - quantity));
+                drift.add(entry);
+            }
+            drift.sort(Comparator.comparingLong(e -> -((Number) e.get("missingQuantity")).longValue()));
+
+            if (apply) {
+                kafkaEventService.sendStockDeductions(missing);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("fromOrderId", start);
+            if (fromOrderId != null && fromOrderId < start) {
+                result.put("requestedFromOrderId", fromOrderId);
+                result.put("message", "Orders before " + start + " are no longer in the processed-events ledger");
+            }
+            result.put("productsAffected", drift.size());
+            result.put("unitsMissing", missingUnits.values().stream().mapToLong(LongAdder::sum).sum());
+            result.put("applied", apply);
+            result.put("products", drift.size() > MAX_REPORTED_PRODUCTS ? drift.subList(0, MAX_REPORTED_PRODUCTS) : drift);
+            job.result = result;
+        }));
+        return job.toMap();
+    }
+
+    public Map<String, Object> getJob(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown rebuild job: " + id);
+        }
+        return job.toMap();
+    }
+
+    public List<Map<String, Object>> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job j) -> j.startedAt).reversed())
+                .map(Job::toMap)
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private Job register(String type) {
+        for (Job existing : jobs.values()) {
+            if (existing.type.equals(type) && existing.finishedAt == null) {
+                throw new IllegalStateException("A " + type + " rebuild is already running: " + existing.id);
+            }
+        }
+        Job job = new Job(type + "-" + jobSequence.incrementAndGet(), type);
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    private void run(Job job, Runnable body) {
+        job.status = "RUNNING";
+        try {
+            body.run();
+            job.status = "COMPLETED";
+        } catch (RuntimeException e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            log.error("Rebuild job {} failed", job.id, e);
+        } finally {
+            job.finishedAt = Instant.now();
+            log.info("Rebuild job {} {} after {} rows in {}", job.id, job.status, job.rows.sum(),
+                    Duration.between(job.startedAt, job.finishedAt));
+        }
+    }
+
+    private long[] orderIdRange() {
+        return toRange(orderItemRepository.findOrderIdRange().get(0));
+    }
+
+    private long[] toRange(Object[] row) {
+        if (row[0] == null)
+            return new long[] { 0, -1 };
+        return new long[] { ((Number) row[0]).longValue(), ((Number) row[1]).longValue() };
+    }
+
+    /**
+     * Waits until no transaction listed as in progress by {@code snapshot}
+     * is still running, so everything they inserted is visible to the scan.
+     */
+    private void awaitTransactions(String snapshot) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settleTimeoutMs);
+        while (orderItemRepository.countInProgress(snapshot) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(
+                        "Transactions open when the rebuild started are still running after " + settleTimeoutMs + " ms");
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Rebuild interrupted");
+            }
+        }
+    }
+
+    /**
+     * Runs {@code chunk} for every [from, to) order-id range on the worker
+     * pool and waits for all of them.
+     */
+    private void scan(Job job, long fromOrderId, long toOrderId, ChunkTask chunk) {
+        List<Future<?>> futures = new ArrayList<>();
+        job.totalChunks.set((int) Math.max(0, (toOrderId - fromOrderId + chunkSize - 1) / chunkSize));
+        for (long from = fromOrderId; from < toOrderId; from += chunkSize) {
+            long lo = from;
+            long hi = Math.min(toOrderId, from + chunkSize);
+            futures.add(workers.submit(() -> {
+                job.rows.add(chunk.process(lo, hi));
+                job.completedChunks.incrementAndGet();
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Rebuild interrupted");
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Rebuild chunk failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        long process(long fromOrderId, long toOrderId);
+    }
+
+    private static final class Job {
+        final String id;
+        final String type;
+        final Instant startedAt = Instant.now();
+        final AtomicInteger totalChunks = new AtomicInteger();
+        final AtomicInteger completedChunks = new AtomicInteger();
+        final LongAdder rows = new LongAdder();
+        volatile String status = "QUEUED";
+        volatile Instant finishedAt;
+        volatile String error;
+        volatile Map<String, Object> result;
+
+        Job(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        Map<String, Object> toMap() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(0.001, Duration.between(startedAt, end).toMillis() / 1000.0);
+            int total = totalChunks.get();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("type", type);
+            map.put("status", status);
+            map.put("startedAt", startedAt.toString());
+            if (finishedAt != null)
+                map.put("finishedAt", finishedAt.toString());
+            map.put("chunks", Map.of("completed", completedChunks.get(), "total", total));
+            map.put("progress", total == 0 ? (finishedAt != null ? 1.0 : 0.0) : (double) completedChunks.get() / total);
+            map.put("rowsProcessed", rows.sum());
+            map.put("rowsPerSecond", Math.round(rows.sum() / seconds));
+            if (error != null)
+                map.put("error", error);
+            if (result != null)
+                map.put("result", result);
+            return map;
+        }
+    }
+}
@@ -2,21 +2,75 @@ package com.groceryscout.backend.service;
 
 import com.groceryscout.backend.entity.Product;
 import com.groceryscout.backend.repository.ProductRepository;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Trending scores: one ZSET member per product, incremented once per order
+ * line.
+ *
+ * A rebuild recounts orders up to a watermark (the highest order id when it
+ * started) into a staging key. While it runs, live increments for orders
+ * above the watermark are mirrored into the staging key; on completion the
+ * staging key replaces the live one and the watermark becomes
+ * 'counted-through', after which increments for orders at or below it are
+ * skipped because the recount already included them. Both steps run as Lua
+ * scripts, so no increment falls between the mirror check and the RENAME.
+ */
 @Service
 public class TrendingService {
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final ProductRepository productRepository;
     private static final String TRENDING_KEY = "trending_products";
+    private static final String STAGING_KEY = TRENDING_KEY + ":rebuild";
+    private static final String WATERMARK_KEY = TRENDING_KEY + ":rebuild-watermark";
+    private static final String COUNTED_THROUGH_KEY = TRENDING_KEY + ":counted-through";
+    private static final List<String> KEYS = List.of(TRENDING_KEY, STAGING_KEY, WATERMARK_KEY, COUNTED_THROUGH_KEY);
+    private static final long REBUILD_TTL_SECONDS = 6 * 3600;
+
+    // ARGV values go through the template's JSON serializer, hence cjson.decode
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+            local order = tonumber(cjson.decode(ARGV[1]))
+            local through = redis.call('GET', KEYS[4])
+            if through and order <= tonumber(through) then return 0 end
+            local watermark = redis.call('GET', KEYS[3])
+            local mirror = watermark and order > tonumber(watermark)
+            for i = 2, #ARGV do
+              redis.call('ZINCRBY', KEYS[1], 1, ARGV[i])
+              if mirror then redis.call('ZINCRBY', KEYS[2], 1, ARGV[i]) end
+            end
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> BEGIN_REBUILD_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[2])
+            redis.call('SET', KEYS[3], tonumber(cjson.decode(ARGV[1])), 'EX', tonumber(cjson.decode(ARGV[2])))
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> FINISH_REBUILD_SCRIPT = new DefaultRedisScript<>("""
+            local watermark = redis.call('GET', KEYS[3])
+            if not watermark or tonumber(watermark) ~= tonumber(cjson.decode(ARGV[1])) then return 0 end
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+              redis.call('RENAME', KEYS[2], KEYS[1])
+            else
+              redis.call('DEL', KEYS[1])
+            end
+            redis.call('SET', KEYS[4], watermark)
+            redis.call('DEL', KEYS[3])
+            return 1
+            """, Long.class);
 
     public TrendingService(RedisTemplate<String, Object> redisTemplate, ProductRepository productRepository) {
         this.redisTemplate = redisTemplate;
@@ -32,6 +86,64 @@ public class TrendingService {
         redisTemplate.opsForZSet().incrementScore(TRENDING_KEY, String.valueOf(productId), 1);
     }
 
+    /**
+     * Increments every product of one order in a single round trip, unless a
+     * rebuild already counted the order.
+     */
+    public void incrementProductPopularity(Long orderId, List<Long> productIds) {
+        Object[] args = new Object[productIds.size() + 1];
+        args[0] = String.valueOf(orderId);
+        for (int i = 0; i < productIds.size(); i++) {
+            args[i + 1] = String.valueOf(productIds.get(i));
+        }
+        redisTemplate.execute(INCREMENT_SCRIPT, KEYS, args);
+    }
+
+    /**
+     * Starts a rebuild of all orders up to {@code watermark}: clears the
+     * staging key and starts mirroring increments for newer orders into it.
+     */
+    public void beginRebuild(long watermark) {
+        redisTemplate.execute(BEGIN_REBUILD_SCRIPT, KEYS, String.valueOf(watermark),
+                String.valueOf(REBUILD_TTL_SECONDS));
+    }
+
+    /**
+     * Adds recounted scores to the staging key with pipelined ZINCRBYs (the
+     * key may already hold mirrored live increments).
+     */
+    public void addRebuildScores(Map<Long, Long> scores) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(scores.entrySet());
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> redisOperations) {
+                RedisOperations<String, Object> operations = (RedisOperations<String, Object>) redisOperations;
+                for (Map.Entry<Long, Long> e : entries) {
+                    operations.opsForZSet().incrementScore(STAGING_KEY, String.valueOf(e.getKey()),
+                            e.getValue().doubleValue());
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Atomically swaps the staging key in as the live ranking.
+     *
+     * @throws IllegalStateException if the rebuild was aborted or superseded
+     */
+    public void finishRebuild(long watermark) {
+        Long swapped = redisTemplate.execute(FINISH_REBUILD_SCRIPT, KEYS, String.valueOf(watermark));
+        if (swapped == null || swapped != 1) {
+            throw new IllegalStateException("Trending rebuild up to order " + watermark + " is no longer active");
+        }
+    }
+
+    public void abortRebuild() {
+        redisTemplate.delete(List.of(STAGING_KEY, WATERMARK_KEY));
+    }
+
     /**
      * Get the top trending products.
      * 
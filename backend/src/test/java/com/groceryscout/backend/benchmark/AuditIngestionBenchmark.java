@@ -0,0 +1,189 @@
+package com.groceryscout.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryscout.backend.dto.OrderStatusEvent;
+import com.groceryscout.backend.entity.AuditLog;
+import com.groceryscout.backend.event.BinaryEventDeserializer;
+import com.groceryscout.backend.event.BinaryEventSerializer;
+import com.groceryscout.backend.repository.AuditLogRepository;
+import com.groceryscout.backend.repository.AuditLogRepositoryImpl;
+import com.groceryscout.backend.service.AuditLogService;
+import com.groceryscout.backend.service.KafkaConsumerService;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares per-record audit inserts against the production batch listener,
+ * using an embedded broker and a real Postgres database. Records carry
+ * binary-encoded status events, as published by KafkaEventService.
+ *
+ * The batched run feeds each poll to
+ * {@link KafkaConsumerService#handleOrderStatusChanged}, so it covers event
+ * decoding, payload serialization in {@link AuditLogService} and the
+ * multi-row insert. A third run calls {@link AuditLogRepositoryImpl#insertAll}
+ * directly and is logged only, to show what the service layer costs on top
+ * of the bulk insert.
+ *
+ * Opt-in: mvn test -Dtest=AuditIngestionBenchmark
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5433/groceryscout
+ * [-Dbenchmark.jdbc-user=postgres -Dbenchmark.jdbc-password=root
+ * -Dbenchmark.messages=20000 -Dbenchmark.min-speedup=10]
+ *
+ * Fails unless the batch listener reaches min-speedup times the per-record
+ * rate (10x by default, the target for batching the audit listeners).
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+@EmbeddedKafka(partitions = 1, topics = { "bench.record", "bench.batch", "bench.direct" }, kraft = true)
+class AuditIngestionBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditIngestionBenchmark.class);
+    private static final int MESSAGES = Integer.getInteger("benchmark.messages", 20_000);
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("benchmark.min-speedup", "10"));
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Test
+    void batchIngestionReachesTargetSpeedup(EmbeddedKafkaBroker broker) throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.jdbc-url"),
+                System.getProperty("benchmark.jdbc-user", "postgres"),
+                System.getProperty("benchmark.jdbc-password", "root"));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS audit_log (id BIGSERIAL, event_type VARCHAR(255) NOT NULL, "
+                + "payload TEXT, created_at TIMESTAMP)");
+        Long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM audit_log", Long.class);
+
+        produce(broker, "bench.record");
+        produce(broker, "bench.batch");
+        produce(broker, "bench.direct");
+
+        AuditLogRepositoryImpl bulkWriter = new AuditLogRepositoryImpl(jdbcTemplate);
+        AuditLogRepository repository = mock(AuditLogRepository.class);
+        when(repository.insertAll(anyList())).thenAnswer(invocation -> bulkWriter.insertAll(invocation.getArgument(0)));
+        AuditLogService auditLogService = new AuditLogService(repository, new ObjectMapper());
+        KafkaConsumerService consumerService = new KafkaConsumerService(auditLogService, 100);
+
+        // Baseline: one INSERT per record, offsets committed per record
+        CountDownLatch recordLatch = new CountDownLatch(MESSAGES);
+        MessageListener<String, Object> recordListener = record -> {
+            jdbcTemplate.update("INSERT INTO audit_log (event_type, payload, created_at) VALUES (?, ?, ?)",
+                    "BENCH_RECORD", toJson(record.value()), Timestamp.valueOf(LocalDateTime.now()));
+            recordLatch.countDown();
+        };
+        double recordRate = run(broker, "bench.record", recordListener, ContainerProperties.AckMode.RECORD,
+                recordLatch);
+
+        // Production path: the batch listener, offsets committed per batch
+        CountDownLatch batchLatch = new CountDownLatch(MESSAGES);
+        BatchMessageListener<String, Object> batchListener = records -> {
+            consumerService.handleOrderStatusChanged(records);
+            records.forEach(r -> batchLatch.countDown());
+        };
+        double batchRate = run(broker, "bench.batch", batchListener, ContainerProperties.AckMode.BATCH, batchLatch);
+
+        // Secondary data point: the bulk insert alone, without the service layer
+        CountDownLatch directLatch = new CountDownLatch(MESSAGES);
+        BatchMessageListener<String, Object> directListener = records -> {
+            List<AuditLog> entries = new ArrayList<>(records.size());
+            for (ConsumerRecord<String, Object> record : records) {
+                AuditLog entry = new AuditLog();
+                entry.setEventType("BENCH_DIRECT");
+                entry.setPayload(toJson(record.value()));
+                entries.add(entry);
+            }
+            bulkWriter.insertAll(entries);
+            records.forEach(r -> directLatch.countDown());
+        };
+        double directRate = run(broker, "bench.direct", directListener, ContainerProperties.AckMode.BATCH,
+                directLatch);
+
+        jdbcTemplate.update("DELETE FROM audit_log WHERE id > ? AND event_type IN "
+                + "('BENCH_RECORD', 'BENCH_DIRECT', 'ORDER_STATUS_CHANGED')", firstId);
+
+        double speedup = batchRate / recordRate;
+        log.info("Audit ingestion: per-record {} msg/s, batch listener {} msg/s ({}x), bare bulk insert {} msg/s",
+                Math.round(recordRate), Math.round(batchRate), String.format("%.1f", speedup),
+                Math.round(directRate));
+        assertTrue(speedup >= MIN_SPEEDUP, String.format(
+                "Batch listener should be at least %.1fx per-record inserts, was %.1fx", MIN_SPEEDUP, speedup));
+    }
+
+    private static String toJson(Object event) {
+        try {
+            return JSON.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void produce(EmbeddedKafkaBroker broker, String topic) {
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BinaryEventSerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 5);
+        try (KafkaProducer<String, Object> producer = new KafkaProducer<>(config)) {
+            for (long i = 0; i < MESSAGES; i++) {
+                producer.send(new ProducerRecord<>(topic, String.valueOf(i),
+                        new OrderStatusEvent(i, "PENDING", "PROCESSING", 1L)));
+            }
+            producer.flush();
+        }
+    }
+
+    private double run(EmbeddedKafkaBroker broker, String topic, Object listener, ContainerProperties.AckMode ackMode,
+            CountDownLatch latch) throws InterruptedException {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, topic + "-bench",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BinaryEventDeserializer.class);
+        ContainerProperties props = new ContainerProperties(topic);
+        props.setMessageListener(listener);
+        props.setAckMode(ackMode);
+        KafkaMessageListenerContainer<String, Object> container = new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(config), props);
+
+        long start = System.nanoTime();
+        container.start();
+        boolean done = latch.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        container.stop();
+        assertTrue(done, "Timed out consuming " + topic);
+        return MESSAGES / (elapsed / 1e9);
+    }
+}
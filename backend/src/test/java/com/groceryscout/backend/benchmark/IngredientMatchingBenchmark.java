@@ -0,0 +1,122 @@
+package com.groceryscout.backend.benchmark;
+
+import com.groceryscout.backend.service.IngredientIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches a 15-ingredient recipe against a synthetic catalog, comparing the
+ * original scan (one LIKE pass over all products per ingredient and per
+ * significant word, done here in memory so no database is needed) with
+ * {@link IngredientIndex#matchAll}.
+ *
+ * Opt-in: mvn test -Dtest=IngredientMatchingBenchmark -Dbenchmark.jmh=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngredientMatchingBenchmark {
+
+    private static final Set<String> SKIP_LIST = Set.of("water", "salt", "ice", "oil", "sugar");
+    private static final String[] BRANDS = { "Amul", "Tata", "Fresh", "Organic", "Aashirvaad", "Daawat", "Everest",
+            "MDH", "Mother Dairy", "Nestle", "Britannia", "Local" };
+    private static final String[] ITEMS = { "Tomatoes", "Onions", "Potatoes", "Garlic Paste", "Ginger Paste",
+            "Paneer", "Butter", "Milk", "Basmati Rice", "Toor Dal", "Chicken Breast", "Eggs", "Coriander", "Mint",
+            "Red Chilli Powder", "Turmeric Powder", "Cumin Seeds", "Garam Masala", "Cloves", "Black Pepper",
+            "Wheat Flour", "Oats", "Lemons", "Green Chillies", "Cream", "Cheese Slices", "Mozzarella Cheese",
+            "Watermelon", "Mangoes", "Apples", "Bananas", "Spinach", "Cauliflower", "Capsicum", "Carrots" };
+    private static final String[] PACKS = { "", " 200g", " 500g", " 1kg", " Pack", " Family Pack" };
+    private static final List<String> RECIPE = List.of("tomatoes", "onion", "garlic cloves", "ginger", "paneer cubes",
+            "butter", "cream", "salt", "water", "red chilli powder", "turmeric", "garam masala", "coriander leaves",
+            "basmati rice", "saffron");
+
+    @Param({ "1000", "10000" })
+    public int catalogSize;
+
+    private long[] ids;
+    private String[] names;
+    private IngredientIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<Long, String> catalog = new LinkedHashMap<>();
+        for (long id = 1; id <= catalogSize; id++) {
+            catalog.put(id, BRANDS[random.nextInt(BRANDS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)]
+                    + PACKS[random.nextInt(PACKS.length)]);
+        }
+        ids = new long[catalog.size()];
+        names = new String[catalog.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : catalog.entrySet()) {
+            ids[i] = entry.getKey();
+            names[i++] = entry.getValue();
+        }
+        index = new IngredientIndex(catalog);
+    }
+
+    @Benchmark
+    public List<Long> linearScan() {
+        List<Long> result = new ArrayList<>(RECIPE.size());
+        for (String ingredient : RECIPE) {
+            result.add(scan(ingredient));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Long> indexed() {
+        return index.matchAll(RECIPE);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.jmh", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(IngredientMatchingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private Long scan(String ingredientName) {
+        String normalized = ingredientName.toLowerCase().trim();
+        if (SKIP_LIST.contains(normalized))
+            return null;
+        for (int p = 0; p < names.length; p++) {
+            String pName = names[p].toLowerCase();
+            if (pName.contains(normalized))
+                return ids[p];
+        }
+        for (String word : normalized.split("\\s+")) {
+            if (word.length() >= 4 && !SKIP_LIST.contains(word)) {
+                for (int p = 0; p < names.length; p++) {
+                    String pName = names[p].toLowerCase();
+                    if (pName.contains(word) && (pName.startsWith(word) || pName.contains(" " + word)))
+                        return ids[p];
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.groceryscout.backend.benchmark;
+
+import com.groceryscout.backend.entity.Recipe;
+import com.groceryscout.backend.entity.Role;
+import com.groceryscout.backend.entity.User;
+import com.groceryscout.backend.repository.RecipeRepository;
+import com.groceryscout.backend.repository.UserRepository;
+import com.groceryscout.backend.service.GeminiRecipeService;
+import com.groceryscout.backend.service.GeminiUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end recipe generation throughput (generation, parsing, ingredient
+ * matching and persistence) against a real Postgres database, with the
+ * offline generator standing in for Gemini. The recipe cache is disabled so
+ * every request generates.
+ *
+ * Opt-in: mvn test -Dtest=RecipeGenerationLoadTest
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5433/groceryscout
+ * [-Dbenchmark.jdbc-user=postgres -Dbenchmark.jdbc-password=root
+ * -Dbenchmark.recipes=500 -Dbenchmark.clients=8
+ * -Dbenchmark.latency-ms=200 -Dbenchmark.failure-rate=0.05]
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+@SpringBootTest(properties = {
+        "app.recipe-generator.provider=offline",
+        "app.recipe-cache.enabled=false",
+        "kafka.enabled=false",
+        "app.event-log.dir=${java.io.tmpdir}/groceryscout-loadtest-event-log" })
+class RecipeGenerationLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeGenerationLoadTest.class);
+    private static final int RECIPES = Integer.getInteger("benchmark.recipes", 500);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 8);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("benchmark.jdbc-url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("benchmark.jdbc-user", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("benchmark.jdbc-password", "root"));
+        registry.add("app.recipe-generator.offline.latency-ms", () -> System.getProperty("benchmark.latency-ms", "200"));
+        registry.add("app.recipe-generator.offline.latency-jitter-ms",
+                () -> System.getProperty("benchmark.latency-jitter-ms", "100"));
+        registry.add("app.recipe-generator.offline.failure-rate",
+                () -> System.getProperty("benchmark.failure-rate", "0.0"));
+    }
+
+    @Autowired
+    private GeminiRecipeService geminiRecipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Test
+    void generationThroughput() throws Exception {
+        User user = userRepository.findByEmail("loadtest@groceryscout.local").orElseGet(() -> {
+            User created = new User();
+            created.setEmail("loadtest@groceryscout.local");
+            created.setPasswordHash("-");
+            created.setRole(Role.CUSTOMER);
+            return userRepository.save(created);
+        });
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger unavailable = new AtomicInteger();
+        AtomicInteger matchedIngredients = new AtomicInteger();
+        AtomicInteger ingredients = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long started = System.nanoTime();
+        List<Future<?>> requests = new ArrayList<>(RECIPES);
+        for (int i = 0; i < RECIPES; i++) {
+            String prompt = "load test " + runId + " dish " + i;
+            requests.add(clients.submit(() -> {
+                long t0 = System.nanoTime();
+                try {
+                    Recipe recipe = geminiRecipeService.generateRecipeAsync(prompt, 2, user.getEmail()).join();
+                    latenciesMicros.add((System.nanoTime() - t0) / 1_000);
+                    generated.incrementAndGet();
+                    ingredients.addAndGet(recipe.getIngredients().size());
+                    matchedIngredients.addAndGet((int) recipe.getIngredients().stream()
+                            .filter(ingredient -> ingredient.getLinkedProduct() != null)
+                            .count());
+                } catch (CompletionException e) {
+                    if (!(e.getCause() instanceof GeminiUnavailableException)) {
+                        throw e;
+                    }
+                    unavailable.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> request : requests) {
+            request.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        clients.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        log.info("Recipe generation (offline provider, {} clients): {} generated, {} unavailable in {}s "
+                        + "-> {} recipes/s; latency p50 {}ms, p95 {}ms, p99 {}ms; {}/{} ingredients matched to products",
+                CLIENTS, generated.get(), unavailable.get(), String.format("%.1f", seconds),
+                String.format("%.1f", generated.get() / seconds), percentile(sorted, 0.50),
+                percentile(sorted, 0.95), percentile(sorted, 0.99), matchedIngredients.get(), ingredients.get());
+
+        List<Recipe> created = recipeRepository.findByCreatorId(user.getId());
+        recipeRepository.deleteAll(created);
+
+        assertTrue(generated.get() > 0, "No recipe was generated");
+        assertTrue(matchedIngredients.get() > 0, "No ingredient was matched to a product");
+    }
+
+    private static double percentile(List<Long> sortedMicros, double p) {
+        if (sortedMicros.isEmpty())
+            return 0;
+        int index = (int) Math.ceil(p * sortedMicros.size()) - 1;
+        return sortedMicros.get(Math.max(0, index)) / 1000.0;
+    }
+}
@@ -0,0 +1,159 @@
+package com.groceryscout.backend.event;
+
+import com.groceryscout.backend.dto.InventoryUpdateEvent;
+import com.groceryscout.backend.dto.LowStockEvent;
+import com.groceryscout.backend.dto.OrderEvent;
+import com.groceryscout.backend.dto.OrderStatusEvent;
+import com.groceryscout.backend.dto.RecipeGeneratedEvent;
+import com.groceryscout.backend.dto.RestockEvent;
+import com.groceryscout.backend.dto.StockDeductionEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventCodecTest {
+
+    private static final List<Object> EVENTS = List.of(
+            new OrderEvent(42L, 7L, List.of(new OrderEvent.OrderItemDto(1L, 2), new OrderEvent.OrderItemDto(3L, 1))),
+            new OrderEvent(43L, null, List.of()),
+            new OrderStatusEvent(42L, "PENDING", "PROCESSING", 7L),
+            new OrderStatusEvent(44L, null, "CANCELLED", null),
+            new RecipeGeneratedEvent(9L, "Paneer, Tomatoes, Crème fraîche"),
+            new InventoryUpdateEvent(5L, "Amul Butter", 12, -1),
+            new LowStockEvent(5L, "Amul Butter", 3, 10),
+            new RestockEvent(5L, "Amul Butter", 40, List.of(7L, Long.MAX_VALUE)),
+            new StockDeductionEvent(42L, 1L, 2));
+
+    @TestFactory
+    Stream<DynamicTest> roundTrip() {
+        return EVENTS.stream().map(event -> DynamicTest.dynamicTest(event.toString(), () -> {
+            byte[] encoded = EventCodec.encode(event);
+            Object decoded = EventCodec.decode(encoded);
+            assertSame(event.getClass(), decoded.getClass());
+            assertArrayEquals(encoded, EventCodec.encode(decoded));
+            if (event instanceof OrderEvent order) {
+                // OrderItemDto has no equals
+                OrderEvent copy = (OrderEvent) decoded;
+                assertEquals(order.getOrderId(), copy.getOrderId());
+                assertEquals(order.getUserId(), copy.getUserId());
+                assertEquals(order.getItems().stream().map(i -> i.getProductId() + "x" + i.getQuantity()).toList(),
+                        copy.getItems().stream().map(i -> i.getProductId() + "x" + i.getQuantity()).toList());
+            } else {
+                assertEquals(event, decoded);
+            }
+        }));
+    }
+
+    @Test
+    void readsOlderVersionWithDefaults() {
+        // OrderStatusEvent as written by a v1 producer, before userId existed
+        EventCodec.Writer out = header(2, 1);
+        out.writeNullableLong(42L);
+        out.writeString("PENDING");
+        out.writeString("PROCESSING");
+
+        Object decoded = EventCodec.decode(out.toByteArray());
+
+        assertEquals(new OrderStatusEvent(42L, "PENDING", "PROCESSING", null), decoded);
+    }
+
+    @Test
+    void ignoresFieldsFromNewerVersion() {
+        EventCodec.Writer out = header(7, 9);
+        out.writeNullableLong(42L);
+        out.writeNullableLong(1L);
+        out.writeVarInt(2);
+        out.writeString("field added in v9");
+
+        assertEquals(new StockDeductionEvent(42L, 1L, 2), EventCodec.decode(out.toByteArray()));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> rejectsTruncatedFrames() {
+        return EVENTS.stream().flatMap(event -> {
+            byte[] full = EventCodec.encode(event);
+            int minimal = minimalLength(event);
+            return Stream.iterate(0, length -> length < minimal, length -> length + 1)
+                    .map(length -> DynamicTest.dynamicTest(event.getClass().getSimpleName() + " cut at " + length,
+                            () -> assertThrows(IllegalArgumentException.class,
+                                    () -> EventCodec.decode(Arrays.copyOf(full, length)))));
+        });
+    }
+
+    @Test
+    void rejectsElementCountBeyondFrame() {
+        EventCodec.Writer out = header(1, 1);
+        out.writeNullableLong(42L);
+        out.writeNullableLong(7L);
+        out.writeVarInt(Integer.MAX_VALUE);
+
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode(out.toByteArray()));
+    }
+
+    @Test
+    void rejectsUnknownSchema() {
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode(header(15, 1).toByteArray()));
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.encode("not an event"));
+    }
+
+    @Test
+    void serializerPassesRawBytesThrough() {
+        // Dead-lettered records that failed deserialization are republished as their original bytes
+        byte[] poison = "not an event".getBytes(StandardCharsets.UTF_8);
+        try (BinaryEventSerializer serializer = new BinaryEventSerializer()) {
+            assertSame(poison, serializer.serialize("inventory.deductions-dlt", poison));
+            assertArrayEquals(EventCodec.encode(EVENTS.get(0)), serializer.serialize("orders.created", EVENTS.get(0)));
+        }
+    }
+
+    @Test
+    void deserializerReadsLegacyJsonAndRejectsGarbage() {
+        try (BinaryEventDeserializer deserializer = new BinaryEventDeserializer()) {
+            byte[] json = "{\"orderId\":42,\"productId\":1,\"quantity\":2}".getBytes(StandardCharsets.UTF_8);
+            assertEquals(new StockDeductionEvent(42L, 1L, 2), deserializer.deserialize("inventory.deductions", json));
+            assertNull(deserializer.deserialize("inventory.deductions", null));
+            assertThrows(SerializationException.class, () -> deserializer.deserialize("inventory.deductions",
+                    "not an event".getBytes(StandardCharsets.UTF_8)));
+            assertThrows(SerializationException.class, () -> deserializer.deserialize("orders.created",
+                    Arrays.copyOf(EventCodec.encode(EVENTS.get(0)), 5)));
+        }
+    }
+
+    private static EventCodec.Writer header(int schemaId, int version) {
+        EventCodec.Writer out = new EventCodec.Writer();
+        out.writeByte(EventCodec.MAGIC);
+        out.writeByte(schemaId);
+        out.writeByte(version);
+        return out;
+    }
+
+    /**
+     * Shortest prefix that holds every field of the oldest version; anything
+     * shorter must fail to decode. Fields added later (userId) are optional.
+     */
+    private static int minimalLength(Object event) {
+        byte[] full = EventCodec.encode(event);
+        if (event instanceof OrderStatusEvent status) {
+            return full.length - (status.getUserId() == null ? 1 : varLongLength(status.getUserId()) + 1);
+        }
+        return full.length;
+    }
+
+    private static int varLongLength(long value) {
+        EventCodec.Writer out = new EventCodec.Writer();
+        out.writeVarLong(value);
+        return out.toByteArray().length;
+    }
+}
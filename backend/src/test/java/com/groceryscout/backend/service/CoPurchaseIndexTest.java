@@ -0,0 +1,117 @@
+package com.groceryscout.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoPurchaseIndexTest {
+
+    private static final String SOURCE = "orders.created-0";
+
+    @Test
+    void countsPairsAndRanksByFrequency() {
+        CoPurchaseIndex index = new CoPurchaseIndex(8, 50);
+        index.recordBasket(new long[] { 1, 2, 3 });
+        index.recordBasket(new long[] { 1, 2 });
+        index.recordBasket(new long[] { 1, 1, 2 });
+
+        assertArrayEquals(new long[] { 2, 3 }, index.topRelated(1, 5));
+        assertEquals(2, index.topRelated(3, 5).length);
+        assertEquals(0, index.topRelated(99, 5).length);
+    }
+
+    @Test
+    void growsPastInitialTableSize() {
+        CoPurchaseIndex index = new CoPurchaseIndex(4, 50);
+        for (long id = 1; id <= 1000; id++) {
+            index.recordBasket(new long[] { id, -id });
+        }
+        assertEquals(2000, index.productCount());
+        for (long id = 1; id <= 1000; id++) {
+            assertArrayEquals(new long[] { -id }, index.topRelated(id, 5));
+        }
+    }
+
+    @Test
+    void skipsEventsBelowRecordedPosition() {
+        CoPurchaseIndex index = new CoPurchaseIndex(8, 50);
+        assertTrue(index.recordBasket(new long[] { 1, 2 }, SOURCE, 10));
+        assertFalse(index.recordBasket(new long[] { 1, 2 }, SOURCE, 10));
+        assertFalse(index.recordBasket(new long[] { 1, 2 }, SOURCE, 3));
+        assertTrue(index.recordBasket(new long[] { 1, 3 }, "orders.created-1", 0));
+
+        assertEquals(Map.of(SOURCE, 11L, "orders.created-1", 1L), index.positions());
+        assertEquals(2, index.topRelated(1, 5).length);
+    }
+
+    @Test
+    void restoresCountsAndPositionsFromSnapshot() throws IOException {
+        CoPurchaseIndex original = new CoPurchaseIndex(8, 50);
+        for (long offset = 0; offset < 200; offset++) {
+            original.recordBasket(new long[] { offset % 7, offset % 11 + 100, 500 }, SOURCE, offset);
+        }
+
+        CoPurchaseIndex restored = new CoPurchaseIndex(8, 50);
+        restored.readSnapshot(read(write(original)));
+
+        assertEquals(original.productCount(), restored.productCount());
+        assertEquals(Map.of(SOURCE, 200L), restored.positions());
+        for (long id : new long[] { 0, 3, 6, 100, 110, 500 }) {
+            assertArrayEquals(original.topRelated(id, 8), restored.topRelated(id, 8), "product " + id);
+        }
+        // Replaying the tail of the log after a restore must not count it again
+        assertFalse(restored.recordBasket(new long[] { 0, 500 }, SOURCE, 199));
+        assertArrayEquals(original.topRelated(500, 8), restored.topRelated(500, 8));
+    }
+
+    @Test
+    void readsVersionOneSnapshotWithoutPositions() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0x47534350);
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeLong(7);
+            out.writeInt(2);
+            out.writeLong(8);
+            out.writeInt(5);
+            out.writeLong(9);
+            out.writeInt(2);
+        }
+
+        CoPurchaseIndex index = new CoPurchaseIndex(8, 50);
+        index.readSnapshot(read(bytes.toByteArray()));
+
+        assertArrayEquals(new long[] { 8, 9 }, index.topRelated(7, 5));
+        assertTrue(index.positions().isEmpty());
+    }
+
+    @Test
+    void rejectsUnknownSnapshot() {
+        CoPurchaseIndex index = new CoPurchaseIndex(8, 50);
+        assertThrows(IOException.class, () -> index.readSnapshot(read(new byte[] { 0, 0, 0, 1, 0, 0, 0, 2 })));
+    }
+
+    private static byte[] write(CoPurchaseIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeSnapshot(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream read(byte[] snapshot) {
+        return new DataInputStream(new ByteArrayInputStream(snapshot));
+    }
+}
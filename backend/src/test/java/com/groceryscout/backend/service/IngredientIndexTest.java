@@ -0,0 +1,98 @@
+package com.groceryscout.backend.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Regression corpus for ingredient matching against the seeded catalog.
+ *
+ * products.txt lists the catalog in id order (id = line number, comments
+ * excluded); cases.tsv maps ingredient names to the expected product name,
+ * '-' meaning no match.
+ */
+class IngredientIndexTest {
+
+    private static Map<Long, String> products;
+    private static IngredientIndex index;
+
+    @BeforeAll
+    static void loadCatalog() throws IOException {
+        products = new LinkedHashMap<>();
+        long id = 1;
+        for (String line : lines("products.txt")) {
+            if (!line.isBlank() && !line.startsWith("#")) {
+                products.put(id++, line.trim());
+            }
+        }
+        index = new IngredientIndex(products);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> corpus() throws IOException {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String line : lines("cases.tsv")) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            String ingredient = columns[0];
+            String expected = columns[1].equals("-") ? null : columns[1];
+            tests.add(DynamicTest.dynamicTest("'" + ingredient + "' -> " + columns[1],
+                    () -> assertEquals(expected, nameOf(index.match(ingredient)))));
+        }
+        return tests.stream();
+    }
+
+    @Test
+    void matchAllKeepsInputOrder() {
+        List<Long> matched = index.matchAll(Arrays.asList("water", "Tomatoes", null, "paneer cubes", "watermelon"));
+
+        assertEquals(5, matched.size());
+        assertNull(matched.get(0));
+        assertEquals("Fresh Tomatoes", nameOf(matched.get(1)));
+        assertNull(matched.get(2));
+        assertEquals("Paneer", nameOf(matched.get(3)));
+        assertEquals("Watermelon", nameOf(matched.get(4)));
+    }
+
+    @Test
+    void rebuiltIndexSeesRenamedProducts() {
+        Map<Long, String> renamed = new HashMap<>(products);
+        renamed.replaceAll((id, name) -> name.equals("Watermelon") ? "Kiran Watermelon" : name);
+        IngredientIndex rebuilt = new IngredientIndex(renamed);
+
+        assertEquals("Kiran Watermelon", renamed.get(rebuilt.match("watermelon")));
+        assertNull(rebuilt.match("water"));
+    }
+
+    private static String nameOf(Long id) {
+        return id != null ? products.get(id) : null;
+    }
+
+    private static List<String> lines(String resource) throws IOException {
+        try (InputStream in = IngredientIndexTest.class.getResourceAsStream("/ingredient-matching/" + resource)) {
+            if (in == null) {
+                throw new IOException("Missing test resource " + resource);
+            }
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines().toList();
+        }
+    }
+}
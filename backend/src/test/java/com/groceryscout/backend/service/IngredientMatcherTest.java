@@ -0,0 +1,111 @@
+package com.groceryscout.backend.service;
+
+import com.groceryscout.backend.entity.Product;
+import com.groceryscout.backend.repository.IngredientAliasRepository;
+import com.groceryscout.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngredientMatcherTest {
+
+    private final Map<Long, Product> catalog = new HashMap<>();
+    private final List<Object[]> storedAliases = new ArrayList<>();
+    private ProductRepository productRepository;
+    private IngredientAliasRepository aliasRepository;
+    private IngredientMatcher matcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        aliasRepository = mock(IngredientAliasRepository.class);
+        when(productRepository.findActiveIdAndName()).thenAnswer(invocation -> catalog.values().stream()
+                .filter(Product::getIsActive)
+                .map(product -> new Object[] { product.getId(), product.getName() })
+                .toList());
+        when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Product> found = new ArrayList<>();
+            for (Long id : (Iterable<Long>) invocation.getArgument(0)) {
+                if (catalog.containsKey(id))
+                    found.add(catalog.get(id));
+            }
+            return found;
+        });
+        when(aliasRepository.findAllAliasProductPairs()).thenAnswer(invocation -> List.copyOf(storedAliases));
+
+        IngredientAliasService aliasService = new IngredientAliasService(aliasRepository, productRepository,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(aliasService, "learnEnabled", true);
+        matcher = new IngredientMatcher(productRepository, aliasService);
+    }
+
+    @Test
+    void storedAliasWinsOverIndex() {
+        add(1, "Onion");
+        add(2, "Shallots");
+        storedAliases.add(new Object[] { "onion", 2L });
+
+        assertEquals(2L, matcher.match("Onion, sliced").getId());
+    }
+
+    @Test
+    void newExactNameProductReplacesLearnedFuzzyMatch() {
+        add(1, "Onion");
+        assertEquals(1L, matcher.match("Red onion, diced").getId());
+        // Learned and served from the alias map from now on
+        add(2, "Red Onion");
+        assertEquals(1L, matcher.match("red onion").getId());
+
+        matcher.productChanged(2L, "Red Onion");
+
+        assertEquals(2L, matcher.match("red onion").getId());
+        verify(aliasRepository).deleteLearnedByAliasIn(Set.of("red onion"));
+    }
+
+    @Test
+    void deactivatedProductLosesLearnedAliases() {
+        add(1, "Onion");
+        assertEquals(1L, matcher.match("onion, chopped").getId());
+
+        catalog.get(1L).setIsActive(false);
+        matcher.productChanged(1L, "Onion", "Onion");
+
+        assertNull(matcher.match("onion, chopped"));
+        verify(aliasRepository).deleteLearnedByProductId(1L);
+    }
+
+    @Test
+    void renamedProductIsMatchedByItsNewName() {
+        add(1, "Onion");
+        assertEquals(1L, matcher.match("onion").getId());
+
+        catalog.get(1L).setName("Shallot");
+        matcher.productChanged(1L, "Shallot", "Onion");
+
+        assertNull(matcher.match("onion"));
+        assertEquals(1L, matcher.match("shallot").getId());
+        verify(aliasRepository).deleteLearnedByAliasIn(Set.of("shallot", "onion"));
+    }
+
+    private void add(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        catalog.put(id, product);
+    }
+}
@@ -0,0 +1,49 @@
+package com.groceryscout.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeGenerationCacheTest {
+
+    @Test
+    void tokenizeDropsStopWordsCaseAndPunctuation() {
+        assertEquals(Set.of("paneer", "butter", "masala"),
+                RecipeGenerationCache.tokenize("Make me a quick Paneer-Butter MASALA, please!"));
+        assertEquals(Set.of("dal", "tadka", "2"), RecipeGenerationCache.tokenize("dal tadka for 2 people"));
+    }
+
+    @Test
+    void tokenizeSingularizesPluralsButKeepsShortAndDoubleS() {
+        assertEquals(Set.of("carrot", "onion", "egg", "bass", "pea"),
+                RecipeGenerationCache.tokenize("carrots onions eggs bass peas"));
+        assertEquals(Set.of("gas"), RecipeGenerationCache.tokenize("gas"));
+    }
+
+    @Test
+    void tokenizeHandlesEmptyInput() {
+        assertTrue(RecipeGenerationCache.tokenize(null).isEmpty());
+        assertTrue(RecipeGenerationCache.tokenize("").isEmpty());
+        assertTrue(RecipeGenerationCache.tokenize("an easy recipe for me").isEmpty());
+        assertEquals(RecipeGenerationCache.tokenize("Chicken Curry"), RecipeGenerationCache.tokenize("curry  chicken"));
+    }
+
+    @Test
+    void jaccardIsSharedOverUnion() {
+        assertEquals(1.0, RecipeGenerationCache.jaccard(Set.of("a", "b"), Set.of("b", "a")));
+        assertEquals(0.0, RecipeGenerationCache.jaccard(Set.of("a"), Set.of("b")));
+        assertEquals(0.5, RecipeGenerationCache.jaccard(Set.of("a", "b", "c"), Set.of("b", "c", "d")));
+        assertEquals(0.8, RecipeGenerationCache.jaccard(Set.of("a", "b", "c", "d"), Set.of("a", "b", "c", "d", "e")));
+    }
+
+    @Test
+    void jaccardIsSymmetric() {
+        Set<String> a = RecipeGenerationCache.tokenize("spicy paneer tikka with mint chutney");
+        Set<String> b = RecipeGenerationCache.tokenize("paneer tikka");
+        assertEquals(RecipeGenerationCache.jaccard(a, b), RecipeGenerationCache.jaccard(b, a));
+        assertEquals(0.4, RecipeGenerationCache.jaccard(a, b));
+    }
+}
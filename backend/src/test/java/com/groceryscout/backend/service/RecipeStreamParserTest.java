@@ -0,0 +1,102 @@
+package com.groceryscout.backend.service;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecipeStreamParserTest {
+
+    private static final String RECIPE = "```json\n{\"title\": \"Palak Paneer\", \"prepTime\": \"30 minutes\", "
+            + "\"nutrition\": {\"kcal\": 420, \"tags\": [\"veg\", [\"iron\"]]}, "
+            + "\"instructions\": [\"Blanch the spinach.\", \"Fry paneer cubes \\\"golden\\\".\", [\"nested\"]], "
+            + "\"difficulty\": \"Medium\", "
+            + "\"ingredients\": [{\"name\": \"spinach\", \"quantity\": \"2 bunches\", \"quantity_grams\": 500}, "
+            + "{\"name\": \"paneer\", \"aliases\": [\"cottage cheese\", [\"chhena\"]], \"quantity_grams\": 200}, "
+            + "{\"quantity\": \"to taste\"}, "
+            + "{\"name\": \"crème fraîche\", \"quantity\": \"2 tbsp\"}]}\n```";
+
+    private static final List<String> EXPECTED = List.of(
+            "field title=Palak Paneer",
+            "field prepTime=30 minutes",
+            "instruction 0=Blanch the spinach.",
+            "instruction 1=Fry paneer cubes \"golden\".",
+            "field difficulty=Medium",
+            "ingredient spinach|2 bunches|500",
+            "ingredient paneer||200",
+            "ingredient crème fraîche|2 tbsp|0");
+
+    @Test
+    void reportsPartsOfWholeDocument() throws IOException {
+        assertEquals(EXPECTED, parse(List.of(RECIPE)));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> reportsSamePartsWhenSplitAnywhere() {
+        return IntStream.range(1, RECIPE.length()).mapToObj(at -> DynamicTest.dynamicTest("split at " + at,
+                () -> assertEquals(EXPECTED, parse(List.of(RECIPE.substring(0, at), RECIPE.substring(at))))));
+    }
+
+    @Test
+    void reportsSamePartsWhenFedCharByChar() throws IOException {
+        List<String> chunks = new ArrayList<>();
+        RECIPE.codePoints().forEach(c -> chunks.add(new String(Character.toChars(c))));
+        assertEquals(EXPECTED, parse(chunks));
+    }
+
+    @Test
+    void truncatedStreamReportsOnlyCompletedParts() throws IOException {
+        int cut = RECIPE.indexOf("\"paneer\", \"aliases\"");
+        assertEquals(EXPECTED.subList(0, 6), parse(List.of(RECIPE.substring(0, cut))));
+        // Cut inside a string value: the value is not reported half-written
+        assertEquals(List.of("field title=Palak Paneer"),
+                parse(List.of(RECIPE.substring(0, RECIPE.indexOf("30 min") + 3))));
+    }
+
+    @Test
+    void ignoresTextAfterRootObject() throws IOException {
+        assertEquals(EXPECTED, parse(List.of(RECIPE, "{\"title\": \"again\"}")));
+    }
+
+    @Test
+    void rejectsInvalidJson() {
+        RecipeStreamParser parser = new RecipeStreamParser(new Recorder());
+        assertThrows(IOException.class, () -> parser.feed("{\"title\": \"x\" \"oops\"}"));
+    }
+
+    private static List<String> parse(List<String> chunks) throws IOException {
+        Recorder recorder = new Recorder();
+        RecipeStreamParser parser = new RecipeStreamParser(recorder);
+        for (String chunk : chunks) {
+            parser.feed(chunk);
+        }
+        return recorder.events;
+    }
+
+    private static final class Recorder implements RecipeStreamParser.Listener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onField(String name, String value) {
+            events.add("field " + name + "=" + value);
+        }
+
+        @Override
+        public void onInstruction(int index, String step) {
+            events.add("instruction " + index + "=" + step);
+        }
+
+        @Override
+        public void onIngredient(String name, String quantity, int grams) {
+            events.add("ingredient " + name + "|" + quantity + "|" + grams);
+        }
+    }
+}
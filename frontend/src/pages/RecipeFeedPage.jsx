@@ -12,22 +12,54 @@ export default function RecipeFeedPage() {
     const { addToast } = useToast();
     const [recipes, setRecipes] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [hasMore, setHasMore] = useState(false);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [selectedRecipe, setSelectedRecipe] = useState(null);
 
     // Delete Modal State
     const [isDeleteModalOpen, setIsDeleteModalOpen] = useState(false);
     const [recipeToDelete, setRecipeToDelete] = useState(null);
 
+    // Logged-in users see their own + manager recipes (filtered by backend), paged by id cursor;
+    // visitors get the cached public summary feed, paged by number
+    const loadPage = (cursor) => {
+        const request = user
+            ? api.get('/user/recipes/paged', { params: cursor != null ? { before: cursor } : {} })
+                .then(r => ({ content: r.data.content, hasMore: r.data.hasMore, next: r.data.nextCursor }))
+            : api.get('/public/recipes/feed', { params: { page: cursor ?? 0 } })
+                .then(r => ({ content: r.data.content, hasMore: r.data.hasMore, next: r.data.currentPage + 1 }));
+        return request.then(page => {
+            setRecipes(prev => cursor != null ? [...prev, ...page.content] : page.content);
+            setNextCursor(page.next);
+            setHasMore(page.hasMore);
+        });
+    };
+
+    const loadMore = () => {
+        setLoadingMore(true);
+        loadPage(nextCursor).catch(console.error).finally(() => setLoadingMore(false));
+    };
+
     useEffect(() => {
-        if (user) {
-            // Logged-in users see their own + manager recipes (filtered by backend)
-            api.get('/user/recipes').then(r => setRecipes(r.data)).catch(console.error).finally(() => setLoading(false));
-        } else {
-            // Not logged in — show public recipes
-            api.get('/public/recipes').then(r => setRecipes(r.data)).catch(console.error).finally(() => setLoading(false));
-        }
+        setLoading(true);
+        loadPage(null).catch(console.error).finally(() => setLoading(false));
     }, [user]);
 
+    // Feed summaries carry no ingredients; the detail endpoint has the full recipe
+    const openRecipe = (recipe) => {
+        if (recipe.ingredients) {
+            setSelectedRecipe(recipe);
+            return;
+        }
+        api.get(`/public/recipes/${recipe.id}`)
+            .then(r => setSelectedRecipe(r.data))
+            .catch(err => {
+                console.error(err);
+                addToast("Failed to load recipe", "error");
+            });
+    };
+
     const isOwnRecipe = (recipe) => user && recipe.creator?.email === user.email;
     const isManagerRecipe = (recipe) => recipe.creator?.role === 'MANAGER';
 
@@ -81,7 +113,7 @@ export default function RecipeFeedPage() {
                                 className="bg-white rounded-xl border border-gray-100 overflow-hidden hover:shadow-lg transition-all cursor-pointer group relative"
                             >
                                 <div
-                                    onClick={() => setSelectedRecipe(recipe)}
+                                    onClick={() => openRecipe(recipe)}
                                     className="h-44 bg-gray-100 flex items-center justify-center relative overflow-hidden"
                                 >
                                     {recipe.imageUrl ? (
@@ -110,19 +142,33 @@ export default function RecipeFeedPage() {
                                     )}
                                 </div>
 
-                                <div onClick={() => setSelectedRecipe(recipe)} className="p-5">
+                                <div onClick={() => openRecipe(recipe)} className="p-5">
                                     <h3 className="font-bold text-gray-900 text-lg mb-1 group-hover:text-green-600 transition-colors">{recipe.title}</h3>
-                                    <p className="text-sm text-gray-500 line-clamp-2 mb-3">{recipe.instructions?.slice(0, 100)}...</p>
+                                    {recipe.instructions && (
+                                        <p className="text-sm text-gray-500 line-clamp-2 mb-3">{recipe.instructions.slice(0, 100)}...</p>
+                                    )}
                                     <div className="flex items-center gap-3 text-xs text-gray-400">
                                         <span>⏱ {recipe.prepTime || 'Quick'}</span>
                                         <span>📊 {recipe.difficulty || 'Easy'}</span>
-                                        <span>🧾 {recipe.ingredients?.length || 0} items</span>
+                                        <span>🧾 {recipe.ingredients?.length ?? recipe.ingredientCount ?? 0} items</span>
                                     </div>
                                 </div>
                             </div>
                         ))}
                     </div>
                 )}
+
+                {!loading && hasMore && (
+                    <div className="flex justify-center mt-8">
+                        <button
+                            onClick={loadMore}
+                            disabled={loadingMore}
+                            className="px-6 py-2 rounded-lg border border-gray-200 bg-white text-gray-700 hover:bg-gray-50 disabled:opacity-50 transition-colors"
+                        >
+                            {loadingMore ? 'Loading...' : 'Load more'}
+                        </button>
+                    </div>
+                )}
             </div>
 
             {/* Recipe Detail Modal */}
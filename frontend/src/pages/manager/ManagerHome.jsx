@@ -17,6 +17,11 @@ export default function ManagerHome() {
             const sorted = r.data.sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt)).slice(0, 5);
             setRecentOrders(sorted);
         }).catch(console.error);
+
+        // Live counters pushed by the server instead of polling
+        const events = new EventSource(`${api.defaults.baseURL}/manager/events`, { withCredentials: true });
+        events.addEventListener('stats', e => setStats(JSON.parse(e.data)));
+        return () => events.close();
     }, []);
 
     return (
@@ -1,9 +1,10 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import api from '../../api/axios';
 import { ChevronDown, ChevronUp, Eye } from 'lucide-react';
 import OrderDetailsModal from '../../components/OrderDetailsModal';
 
 const COLUMNS = ['PENDING', 'PROCESSING', 'DELIVERED'];
+const RESYNC_DEBOUNCE_MS = 2000;
 const COL_CONFIG = {
     PENDING: { color: 'yellow', dot: 'bg-yellow-400', label: 'PENDING' },
     PROCESSING: { color: 'blue', dot: 'bg-blue-400', label: 'PROCESSING' },
@@ -28,17 +29,40 @@ export default function ManagerOrders() {
         }
     };
 
+    const resyncTimer = useRef(null);
+
     useEffect(() => {
         fetchOrders(true);
-        const interval = setInterval(() => fetchOrders(false), 10000);
-        return () => clearInterval(interval);
+        // Apply pushed changes to local state; only a 'resync' (missed events) refetches the list
+        const events = new EventSource(`${api.defaults.baseURL}/manager/events`, { withCredentials: true });
+        events.addEventListener('order-created', async (e) => {
+            const { orderId } = JSON.parse(e.data);
+            try {
+                const res = await api.get(`/manager/orders/${orderId}`);
+                setOrders(prev => prev.some(o => o.id === orderId) ? prev : [...prev, res.data]);
+            } catch (err) {
+                console.error(err);
+            }
+        });
+        events.addEventListener('order-status', (e) => {
+            const { orderId, status } = JSON.parse(e.data);
+            setOrders(prev => prev.map(o => o.id === orderId ? { ...o, status } : o));
+        });
+        events.addEventListener('resync', () => {
+            clearTimeout(resyncTimer.current);
+            resyncTimer.current = setTimeout(() => fetchOrders(false), RESYNC_DEBOUNCE_MS);
+        });
+        return () => {
+            clearTimeout(resyncTimer.current);
+            events.close();
+        };
     }, []);
 
 
     const updateStatus = async (orderId, newStatus) => {
         try {
-            await api.patch(`/manager/orders/${orderId}/status`, { status: newStatus });
-            fetchOrders();
+            const res = await api.patch(`/manager/orders/${orderId}/status`, { status: newStatus });
+            setOrders(prev => prev.map(o => o.id === orderId ? res.data : o));
         } catch (err) {
             console.error('Failed to update status', err);
         }